@@ -0,0 +1,138 @@
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the workflow engine's phase events ({@code com.workflow.*}, see {@code jfr/workflow.jfc}) in a recording:
+ * count, total and latency percentiles per phase, in the order a submit runs them. Needs only the JDK:
+ * <pre>
+ * java jfr/WorkflowRecordingSummary.java workflow.jfr [--by-workflow]
+ * </pre>
+ * {@code --by-workflow} adds the same table per workflow id, slowest in total first (top 10). Submits blocked by a
+ * rule stop after evaluating it; their number is reported below the table.
+ */
+public class WorkflowRecordingSummary {
+
+    private static final String PREFIX = "com.workflow.";
+    private static final List<String> PHASES = List.of(
+            "LoadInstance", "LoadDefinition", "BuildContext", "EvaluateRules", "SerializeForm", "AdvanceStep", "Commit");
+    private static final int TOP_WORKFLOWS = 10;
+
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean byWorkflow = arguments.remove("--by-workflow");
+        if (arguments.size() != 1) {
+            System.err.println("Usage: java WorkflowRecordingSummary.java <recording.jfr> [--by-workflow]");
+            System.exit(2);
+        }
+
+        Map<String, Durations> phases = new LinkedHashMap<>();
+        Map<Long, Map<String, Durations>> workflows = new TreeMap<>();
+        long blocked = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(Path.of(arguments.get(0)))) {
+            String type = event.getEventType().getName();
+            if (!type.startsWith(PREFIX)) {
+                continue;
+            }
+            String phase = type.substring(PREFIX.length());
+            long nanos = event.getDuration().toNanos();
+            phases.computeIfAbsent(phase, p -> new Durations()).add(nanos);
+            if (byWorkflow) {
+                workflows.computeIfAbsent(event.getLong("workflowId"), id -> new LinkedHashMap<>())
+                        .computeIfAbsent(phase, p -> new Durations()).add(nanos);
+            }
+            if (phase.equals("EvaluateRules") && event.getBoolean("blocked")) {
+                blocked++;
+            }
+        }
+        if (phases.isEmpty()) {
+            System.out.println("No " + PREFIX + "* events; was the recording made with jfr/workflow.jfc?");
+            return;
+        }
+
+        print("All workflows", phases);
+        if (blocked > 0) {
+            System.out.printf(Locale.ROOT, "%d rule evaluations blocked their submit%n", blocked);
+        }
+        if (byWorkflow) {
+            workflows.entrySet().stream()
+                    .sorted(Comparator.comparingLong(
+                            (Map.Entry<Long, Map<String, Durations>> entry) -> total(entry.getValue())).reversed())
+                    .limit(TOP_WORKFLOWS)
+                    .forEach(entry -> print("Workflow " + entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static long total(Map<String, Durations> phases) {
+        return phases.values().stream().mapToLong(Durations::total).sum();
+    }
+
+    private static void print(String title, Map<String, Durations> phases) {
+        long total = total(phases);
+        System.out.printf(Locale.ROOT, "%n%s%n%-16s %8s %10s %6s %9s %9s %9s %9s %9s%n", title,
+                "phase", "count", "total ms", "share", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        List<String> order = new ArrayList<>(PHASES);
+        phases.keySet().stream().filter(phase -> !order.contains(phase)).forEach(order::add);
+        for (String phase : order) {
+            Durations durations = phases.get(phase);
+            if (durations == null) {
+                continue;
+            }
+            durations.sort();
+            System.out.printf(Locale.ROOT, "%-16s %8d %10.1f %5.1f%% %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                    phase, durations.count(), millis(durations.total()),
+                    total == 0 ? 0 : 100.0 * durations.total() / total,
+                    millis(durations.total()) / durations.count(),
+                    millis(durations.percentile(0.50)), millis(durations.percentile(0.95)),
+                    millis(durations.percentile(0.99)), millis(durations.percentile(1.0)));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /** Durations in nanoseconds, growable; sorted before percentiles are read. */
+    private static final class Durations {
+
+        private long[] values = new long[64];
+        private int count;
+        private long total;
+
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            total += nanos;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, count);
+        }
+
+        int count() {
+            return count;
+        }
+
+        long total() {
+            return total;
+        }
+
+        /** Nearest-rank percentile of the sorted values. */
+        long percentile(double p) {
+            int rank = (int) Math.ceil(p * count);
+            return values[Math.max(0, Math.min(count, rank) - 1)];
+        }
+    }
+}
@@ -0,0 +1,111 @@
+#!/usr/bin/env python3
+"""
+Load test of a cache stampede: N keep-alive connections read one workflow definition
+(GET /api/admin/workflows/{id}) while its cache entry is evicted every few seconds by publishing the workflow.
+Samples the pool from the Prometheus endpoint meanwhile and reports the busiest moment, and how many definition
+loads the evictions caused. With single-flight loading that is one load per eviction per node and the active
+connections stay flat; without it, every reader in flight at the eviction takes a connection. Standard library only.
+
+    python3 loadtest/eviction_load.py --token "$ADMIN_TOKEN" --workflow 1 --concurrency 500 --duration 30
+
+Run the backend with rate limiting off (--app.rate-limit.enabled=false). Loads count all views of the workflow,
+so expect a few per eviction: the publish reads it too.
+"""
+import argparse
+import asyncio
+import re
+import time
+import urllib.request
+
+from inbox_load import percentile, read_response
+
+
+def scrape(url, workflow):
+    """The pool's gauges, summed across pools, and the number of definition loads of the workflow so far."""
+    text = urllib.request.urlopen(url, timeout=10).read().decode()
+    values = {}
+    for name, tag in (("hikaricp_connections_active", ""), ("hikaricp_connections_pending", ""),
+                      ("workflow_definition_load_seconds_count", f'workflow="{workflow}"')):
+        pattern = rf"^{name}{{([^}}]*)}} ([0-9.eE+-]+)$"
+        values[name] = sum(float(v) for tags, v in re.findall(pattern, text, re.M) if tag in tags)
+    return values
+
+
+async def reader(args, deadline, latencies, statuses):
+    request = (f"GET /api/admin/workflows/{args.workflow} HTTP/1.1\r\nHost: {args.host}\r\n"
+               f"Authorization: Bearer {args.token}\r\nAccept: application/json\r\n\r\n").encode()
+    reader_stream, writer = await asyncio.open_connection(args.host, args.port)
+    try:
+        while time.monotonic() < deadline:
+            start = time.monotonic()
+            writer.write(request)
+            await writer.drain()
+            status = await read_response(reader_stream)
+            latencies.append(time.monotonic() - start)
+            statuses[status] = statuses.get(status, 0) + 1
+    except (OSError, asyncio.IncompleteReadError):
+        statuses["io-error"] = statuses.get("io-error", 0) + 1
+    finally:
+        writer.close()
+
+
+async def evictor(args, deadline, evictions):
+    request = (f"POST /api/admin/workflows/{args.workflow}/publish HTTP/1.1\r\nHost: {args.host}\r\n"
+               f"Authorization: Bearer {args.token}\r\nContent-Length: 0\r\n\r\n").encode()
+    reader_stream, writer = await asyncio.open_connection(args.host, args.port)
+    try:
+        while time.monotonic() + args.evict_every < deadline:
+            await asyncio.sleep(args.evict_every)
+            writer.write(request)
+            await writer.drain()
+            evictions.append(await read_response(reader_stream))
+    finally:
+        writer.close()
+
+
+async def sampler(args, deadline, peaks):
+    loop = asyncio.get_running_loop()
+    while time.monotonic() < deadline:
+        try:
+            sample = await loop.run_in_executor(None, scrape, args.metrics, args.workflow)
+        except OSError:
+            # The management port shares the CPU with the load; a missed sample is not a failure
+            continue
+        for name, value in sample.items():
+            peaks[name] = max(peaks.get(name, 0), value)
+        await asyncio.sleep(0.05)
+
+
+async def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--host", default="127.0.0.1")
+    parser.add_argument("--port", type=int, default=8080)
+    parser.add_argument("--metrics", default="http://127.0.0.1:9090/actuator/prometheus")
+    parser.add_argument("--token", required=True)
+    parser.add_argument("--workflow", type=int, required=True)
+    parser.add_argument("--concurrency", type=int, default=500)
+    parser.add_argument("--duration", type=float, default=30)
+    parser.add_argument("--evict-every", type=float, default=2)
+    args = parser.parse_args()
+
+    loads_before = scrape(args.metrics, args.workflow)["workflow_definition_load_seconds_count"]
+    latencies, statuses, evictions, peaks = [], {}, [], {}
+    deadline = time.monotonic() + args.duration
+    started = time.monotonic()
+    await asyncio.gather(sampler(args, deadline, peaks), evictor(args, deadline, evictions),
+                         *(reader(args, deadline, latencies, statuses) for _ in range(args.concurrency)))
+    elapsed = time.monotonic() - started
+    loads = scrape(args.metrics, args.workflow)["workflow_definition_load_seconds_count"] - loads_before
+
+    latencies.sort()
+    print(f"requests {len(latencies)} in {elapsed:.1f}s = {len(latencies) / elapsed:.0f} req/s")
+    print("latency ms  p50 {:.0f}  p90 {:.0f}  p99 {:.0f}  max {:.0f}".format(
+        *(1000 * percentile(latencies, p) for p in (0.5, 0.9, 0.99, 1.0))))
+    print("responses", dict(sorted(statuses.items(), key=str)))
+    print(f"evictions {len(evictions)} (statuses {sorted(set(evictions))}), definition loads {loads:.0f}")
+    print("peak connections active {:.0f}, pending {:.0f}".format(
+        peaks.get("hikaricp_connections_active", 0), peaks.get("hikaricp_connections_pending", 0)))
+
+
+if __name__ == "__main__":
+    asyncio.run(main())
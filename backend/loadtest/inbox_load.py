@@ -0,0 +1,86 @@
+#!/usr/bin/env python3
+"""
+Closed-loop load test of the task inbox (GET /api/tasks): N keep-alive connections each send a request,
+wait for the response and send the next, for a fixed duration. Standard library only.
+
+    python3 loadtest/inbox_load.py --token "$ACCESS_TOKEN" --concurrency 2000 --duration 30
+
+Run the backend with rate limiting off (RATE_LIMIT_ENABLED=false) and compare VIRTUAL_THREADS=true/false.
+"""
+import argparse
+import asyncio
+import time
+
+
+async def read_response(reader):
+    head = await reader.readuntil(b"\r\n\r\n")
+    status = int(head.split(b" ", 2)[1])
+    headers = head.lower()
+    if b"transfer-encoding: chunked" in headers:
+        while True:
+            size = int((await reader.readuntil(b"\r\n")).strip(), 16)
+            await reader.readexactly(size + 2)
+            if size == 0:
+                break
+    else:
+        marker = b"content-length: "
+        start = headers.find(marker)
+        if start >= 0:
+            length = int(headers[start + len(marker):headers.index(b"\r\n", start)])
+            await reader.readexactly(length)
+    return status
+
+
+async def client(args, deadline, latencies, statuses):
+    request = (f"GET {args.path} HTTP/1.1\r\nHost: {args.host}\r\n"
+               f"Authorization: Bearer {args.token}\r\nAccept: application/json\r\n\r\n").encode()
+    try:
+        reader, writer = await asyncio.open_connection(args.host, args.port)
+    except OSError:
+        statuses["connect-error"] = statuses.get("connect-error", 0) + 1
+        return
+    try:
+        while time.monotonic() < deadline:
+            start = time.monotonic()
+            writer.write(request)
+            await writer.drain()
+            status = await read_response(reader)
+            latencies.append(time.monotonic() - start)
+            statuses[status] = statuses.get(status, 0) + 1
+    except (OSError, asyncio.IncompleteReadError):
+        statuses["io-error"] = statuses.get("io-error", 0) + 1
+    finally:
+        writer.close()
+
+
+def percentile(sorted_values, p):
+    if not sorted_values:
+        return 0.0
+    return sorted_values[min(len(sorted_values) - 1, int(len(sorted_values) * p))]
+
+
+async def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--host", default="127.0.0.1")
+    parser.add_argument("--port", type=int, default=8080)
+    parser.add_argument("--path", default="/api/tasks?page=0&size=20")
+    parser.add_argument("--token", required=True)
+    parser.add_argument("--concurrency", type=int, default=2000)
+    parser.add_argument("--duration", type=float, default=30)
+    args = parser.parse_args()
+
+    latencies, statuses = [], {}
+    deadline = time.monotonic() + args.duration
+    started = time.monotonic()
+    await asyncio.gather(*(client(args, deadline, latencies, statuses) for _ in range(args.concurrency)))
+    elapsed = time.monotonic() - started
+
+    latencies.sort()
+    print(f"requests {len(latencies)} in {elapsed:.1f}s = {len(latencies) / elapsed:.0f} req/s")
+    print("latency ms  p50 {:.0f}  p90 {:.0f}  p99 {:.0f}  max {:.0f}".format(
+        *(1000 * percentile(latencies, p) for p in (0.5, 0.9, 0.99, 1.0))))
+    print("responses", dict(sorted(statuses.items(), key=str)))
+
+
+if __name__ == "__main__":
+    asyncio.run(main())
@@ -0,0 +1,54 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON results (e.g. src/jmh/baseline.json and target/jmh/result.json) benchmark by benchmark.
+
+Usage: python3 src/jmh/compare.py BASELINE.json RESULT.json [--threshold 0.10]
+
+A change is flagged when the scores differ by more than the threshold (10% by default) and the two error
+intervals do not overlap; anything else is within noise. Exits with 1 if a benchmark got slower, so it can gate CI.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    by_key = {}
+    for result in results:
+        params = ",".join(f"{k}={v}" for k, v in sorted(result.get("params", {}).items()))
+        key = result["benchmark"].rsplit(".", 2)[-2] + "." + result["benchmark"].rsplit(".", 1)[-1]
+        by_key[key + (f" [{params}]" if params else "")] = result
+    return by_key
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("baseline")
+    parser.add_argument("result")
+    parser.add_argument("--threshold", type=float, default=0.10)
+    args = parser.parse_args()
+
+    baseline, result = load(args.baseline), load(args.result)
+    slower = 0
+    width = max(len(key) for key in baseline.keys() | result.keys())
+    print(f"{'benchmark':<{width}} {'baseline':>12} {'result':>12} {'change':>8}  unit")
+    for key in sorted(baseline.keys() | result.keys()):
+        if key not in baseline or key not in result:
+            print(f"{key:<{width}} {'only in ' + ('baseline' if key in baseline else 'result'):>34}")
+            continue
+        old, new = baseline[key]["primaryMetric"], result[key]["primaryMetric"]
+        change = new["score"] / old["score"] - 1 if old["score"] else 0.0
+        overlap = abs(new["score"] - old["score"]) <= (old.get("scoreError") or 0) + (new.get("scoreError") or 0)
+        # avgt/sample/ss scores are times (lower is better); thrpt scores are rates (higher is better)
+        worse = change < 0 if baseline[key]["mode"] == "thrpt" else change > 0
+        flag = ""
+        if abs(change) > args.threshold and not overlap:
+            flag = "  SLOWER" if worse else "  faster"
+            slower += worse
+        print(f"{key:<{width}} {old['score']:>12.3f} {new['score']:>12.3f} {change:>+7.1%}  {new['scoreUnit']}{flag}")
+    sys.exit(1 if slower else 0)
+
+
+if __name__ == "__main__":
+    main()
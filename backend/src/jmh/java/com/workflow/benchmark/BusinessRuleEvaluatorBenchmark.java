@@ -0,0 +1,72 @@
+package com.workflow.benchmark;
+
+import com.workflow.config.AppMetricsProperties;
+import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.WorkflowStepDto;
+import com.workflow.metrics.WorkflowMetrics;
+import com.workflow.service.BusinessRuleEvaluator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule evaluation on submit: building the SpEL variables from the form, and evaluating a step's rules when none of
+ * them blocks (the common case, and the most expensive one since every rule runs). Rule timers are recorded into an
+ * in-memory registry, as in the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BusinessRuleEvaluatorBenchmark {
+
+    @Param({"1", "10", "50"})
+    int ruleCount;
+
+    @Param({"8", "40"})
+    int fieldCount;
+
+    private BusinessRuleEvaluator evaluator;
+    private Map<String, Object> formData;
+    private WorkflowStepDto step;
+    private List<BusinessRuleDto> rules;
+    private Map<String, Object> context;
+
+    @Setup
+    public void setUp() {
+        evaluator = new BusinessRuleEvaluator(
+                new WorkflowMetrics(new SimpleMeterRegistry(), new AppMetricsProperties(0, 0, 0)));
+        formData = Fixtures.formData(fieldCount);
+        step = Fixtures.step(fieldCount);
+        rules = Fixtures.rules(ruleCount);
+        context = evaluator.buildContext(formData, step);
+        if (evaluator.evaluateBlockingRules(rules, context) != null) {
+            throw new IllegalStateException("Fixture rules must not block");
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> buildContext() {
+        return evaluator.buildContext(formData, step);
+    }
+
+    @Benchmark
+    public String evaluateBlockingRules() {
+        return evaluator.evaluateBlockingRules(rules, context);
+    }
+}
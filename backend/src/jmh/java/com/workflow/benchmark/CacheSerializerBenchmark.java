@@ -0,0 +1,72 @@
+package com.workflow.benchmark;
+
+import com.workflow.cache.SmileCacheSerializer;
+import com.workflow.dto.WorkflowDefinitionDto;
+import com.workflow.dto.WorkflowDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis values of the workflows cache written and read by each {@code app.cache.serializer}: Smile with LZ4 above
+ * the configured threshold, and {@link GenericJackson2JsonRedisSerializer}. The encoded size of each combination is
+ * printed once per fork, as {@code serialized size: ...}, next to the times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    private static final long WORKFLOW_ID = 7;
+    /** {@code app.cache.compression-threshold} as shipped. */
+    private static final int COMPRESSION_THRESHOLD = 2048;
+
+    @Param({"smile", "json"})
+    String serializer;
+
+    /** A typical approval chain, and the largest definitions seen in practice. */
+    @Param({"5", "200"})
+    int steps;
+
+    private RedisSerializer<Object> redisSerializer;
+    private WorkflowDefinitionDto value;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        redisSerializer = "json".equals(serializer)
+                ? new GenericJackson2JsonRedisSerializer()
+                : new SmileCacheSerializer(COMPRESSION_THRESHOLD);
+        // Shaped as WorkflowDefinitionBenchmark's definitions; the hash is a placeholder of the real length
+        WorkflowDto definition = Fixtures.loader(Fixtures.definition(WORKFLOW_ID, steps, 6, 2))
+                .load(WORKFLOW_ID).orElseThrow();
+        value = new WorkflowDefinitionDto("0".repeat(64), definition);
+        serialized = redisSerializer.serialize(value);
+        System.out.printf("serialized size: %s, %d steps: %d bytes%n", serializer, steps, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(serialized);
+    }
+}
@@ -0,0 +1,229 @@
+package com.workflow.benchmark;
+
+import com.workflow.config.AppMetricsProperties;
+import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.FormFieldDto;
+import com.workflow.dto.WorkflowStepDto;
+import com.workflow.metrics.WorkflowMetrics;
+import com.workflow.model.BusinessRule;
+import com.workflow.model.FieldType;
+import com.workflow.model.FormField;
+import com.workflow.model.Role;
+import com.workflow.model.StepType;
+import com.workflow.model.User;
+import com.workflow.model.Workflow;
+import com.workflow.model.WorkflowStatus;
+import com.workflow.model.WorkflowStep;
+import com.workflow.repository.BusinessRuleRepository;
+import com.workflow.repository.FormFieldRepository;
+import com.workflow.repository.WorkflowRepository;
+import com.workflow.repository.WorkflowStepRepository;
+import com.workflow.service.WorkflowDefinitionLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic test data shaped like what the designer produces: approval-style steps with a handful of typed
+ * fields each, and rules comparing form values the way admins write them. Seeded, so every run measures the same.
+ */
+final class Fixtures {
+
+    /** Form keys the generated rules refer to; always present in {@link #formData}. */
+    private static final String[] RULE_KEYS = {"amount", "priority", "department", "days_requested"};
+    private static final String[] DEPARTMENTS = {"FINANCE", "SALES", "ENGINEERING", "LEGAL", "HR"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final FieldType[] FIELD_TYPES = {
+            FieldType.TEXT, FieldType.NUMBER, FieldType.SELECT, FieldType.DATE, FieldType.TEXTAREA, FieldType.EMAIL};
+
+    private Fixtures() {
+    }
+
+    /**
+     * A workflow's rows as the definition loader reads them: steps in order, then all their fields and rules.
+     * Rules are all step-level, as the designer creates them.
+     */
+    record Definition(Workflow workflow, List<WorkflowStep> steps, List<FormField> fields, List<BusinessRule> rules) {
+    }
+
+    static Definition definition(long workflowId, int stepCount, int fieldsPerStep, int rulesPerStep) {
+        Random random = new Random(workflowId);
+        User creator = User.builder().id(1L).username("admin").email("admin@example.com").build();
+        Role approver = Role.builder().id(2L).name("APPROVER").build();
+        Workflow workflow = Workflow.builder()
+                .id(workflowId)
+                .name("Purchase request " + workflowId)
+                .description("Request, review and approve a purchase above the team's budget")
+                .status(WorkflowStatus.PUBLISHED)
+                .createdBy(creator)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 9, 30))
+                .build();
+
+        List<WorkflowStep> steps = new ArrayList<>(stepCount);
+        List<FormField> fields = new ArrayList<>(stepCount * fieldsPerStep);
+        List<BusinessRule> rules = new ArrayList<>(stepCount * rulesPerStep);
+        long nextId = workflowId * 1_000_000;
+        for (int s = 0; s < stepCount; s++) {
+            WorkflowStep step = WorkflowStep.builder()
+                    .id(++nextId)
+                    .name("Step " + (s + 1))
+                    .description("Review the request and fill in the details needed for the next stage")
+                    .type(s == 0 ? StepType.START : s == stepCount - 1 ? StepType.END : StepType.TASK)
+                    .stepOrder(s)
+                    .workflow(workflow)
+                    .assignedRole(s == 0 ? null : approver)
+                    .positionX(120.0 + 220 * s)
+                    .positionY(80.0 + random.nextInt(200))
+                    .transitionTargets(s < stepCount - 1 ? String.valueOf(nextId + 1) : null)
+                    .build();
+            steps.add(step);
+            for (int f = 0; f < fieldsPerStep; f++) {
+                FieldType type = FIELD_TYPES[(s + f) % FIELD_TYPES.length];
+                fields.add(FormField.builder()
+                        .id(++nextId)
+                        .label(f < RULE_KEYS.length ? label(RULE_KEYS[f]) : "Detail " + (f + 1))
+                        .fieldKey(f < RULE_KEYS.length ? RULE_KEYS[f] : "field_" + s + "_" + f)
+                        .fieldType(type)
+                        .required(f % 2 == 0)
+                        .placeholder("Enter a value")
+                        .options(type == FieldType.SELECT ? "[\"LOW\",\"MEDIUM\",\"HIGH\"]" : null)
+                        .validationRegex(type == FieldType.EMAIL ? "^[^@\\s]+@[^@\\s]+$" : null)
+                        .fieldOrder(f)
+                        .step(step)
+                        .build());
+            }
+            for (int r = 0; r < rulesPerStep; r++) {
+                BusinessRuleDto rule = rule(s * rulesPerStep + r);
+                rules.add(BusinessRule.builder()
+                        .id(++nextId)
+                        .name(rule.name())
+                        .description(rule.description())
+                        .conditionExpression(rule.conditionExpression())
+                        .actionType(rule.actionType())
+                        .ruleOrder(r)
+                        .workflow(workflow)
+                        .step(step)
+                        .build());
+            }
+        }
+        return new Definition(workflow, steps, fields, rules);
+    }
+
+    /** A loader whose repositories answer with {@code rows}, for measuring the mapping without a database. */
+    static WorkflowDefinitionLoader loader(Definition rows) {
+        return new WorkflowDefinitionLoader(
+                stub(WorkflowRepository.class, Map.of("findHeaderById", Optional.of(header(rows.workflow())))),
+                stub(WorkflowStepRepository.class, Map.of("findWithAssignedRoleByWorkflowId", rows.steps())),
+                stub(FormFieldRepository.class, Map.of("findAllByWorkflowId", rows.fields())),
+                stub(BusinessRuleRepository.class, Map.of("findAllByWorkflowId", rows.rules())),
+                new WorkflowMetrics(new SimpleMeterRegistry(), new AppMetricsProperties(0, 0, 0)));
+    }
+
+    private static WorkflowRepository.Header header(Workflow workflow) {
+        return new WorkflowRepository.Header() {
+            @Override
+            public Workflow getWorkflow() {
+                return workflow;
+            }
+
+            @Override
+            public String getCreatedByUsername() {
+                return workflow.getCreatedBy().getUsername();
+            }
+        };
+    }
+
+    /** Answers the named methods with the given values; any other call is a fixture bug. */
+    private static <T> T stub(Class<T> repository, Map<String, Object> answers) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    Object answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.toString());
+                    }
+                    return answer;
+                }));
+    }
+
+    /**
+     * {@code count} rules over the keys of {@link #formData}, none of which holds for it, so an evaluation runs them
+     * all; every fourth one has a non-blocking action and is skipped.
+     */
+    static List<BusinessRuleDto> rules(int count) {
+        List<BusinessRuleDto> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rules.add(rule(i));
+        }
+        return rules;
+    }
+
+    private static BusinessRuleDto rule(int i) {
+        int threshold = 50_000 + 1_000 * i;
+        String condition = switch (i % 4) {
+            case 0 -> "amount > " + threshold;
+            case 1 -> "amount > " + threshold / 2 + " and priority == 'HIGH'";
+            case 2 -> "department == '" + DEPARTMENTS[i % DEPARTMENTS.length] + "' and amount >= " + threshold;
+            default -> "days_requested > " + (30 + i) + " or (amount > " + threshold + " and priority != 'LOW')";
+        };
+        String action = i % 4 == 3 ? "NOTIFY" : i % 2 == 0 ? "REQUIRE_APPROVAL" : "REJECT";
+        return new BusinessRuleDto((long) i + 1, "Rule " + (i + 1), "Escalate large or urgent requests",
+                condition, action, null, i);
+    }
+
+    /** A step whose first fields are the rule keys, labelled so that labels are valid identifiers too. */
+    static WorkflowStepDto step(int fieldCount) {
+        List<FormFieldDto> fields = new ArrayList<>(fieldCount);
+        for (int f = 0; f < fieldCount; f++) {
+            String key = f < RULE_KEYS.length ? RULE_KEYS[f] : "field_" + f;
+            fields.add(new FormFieldDto((long) f + 1, f < RULE_KEYS.length ? label(key) : "Detail " + (f + 1), key,
+                    FIELD_TYPES[f % FIELD_TYPES.length], f % 2 == 0, "Enter a value", null, null, f));
+        }
+        return new WorkflowStepDto(1L, "Manager review", "Review the request", StepType.TASK, 1, 2L, "APPROVER",
+                340.0, 120.0, "2", fields, List.of());
+    }
+
+    /**
+     * Submitted form data as Jackson reads the request body: numbers from number inputs, everything else as
+     * strings (including numbers typed into text fields), the odd boolean and empty value.
+     */
+    static Map<String, Object> formData(int fieldCount) {
+        Random random = new Random(fieldCount);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("amount", 1250 + random.nextInt(1000));
+        data.put("priority", PRIORITIES[random.nextInt(2)]);
+        data.put("department", "OPERATIONS");
+        data.put("days_requested", String.valueOf(1 + random.nextInt(5)));
+        for (int f = RULE_KEYS.length; f < fieldCount; f++) {
+            String key = "field_" + f;
+            data.put(key, switch (f % 5) {
+                case 0 -> String.valueOf(random.nextInt(100_000));
+                case 1 -> "Quarterly restock of consumables for the " + DEPARTMENTS[f % DEPARTMENTS.length] + " team";
+                case 2 -> random.nextBoolean();
+                case 3 -> "";
+                default -> "2024-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10);
+            });
+        }
+        return data;
+    }
+
+    static User user(long id, int roleCount) {
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < roleCount; r++) {
+            roles.add(Role.builder().id((long) r + 1).name(r == 0 ? "USER" : "ROLE_" + r).build());
+        }
+        return User.builder().id(id).username("user" + id).email("user" + id + "@example.com").roles(roles).build();
+    }
+
+    private static String label(String key) {
+        return Character.toUpperCase(key.charAt(0)) + key.substring(1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.workflow.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submitted form data: written as JSON into the task's {@code form_data} on every submit (what
+ * {@code TaskService.serializeFormData} does) and read back, with Smile and CBOR alongside as the binary
+ * formats the application already ships.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormDataSerializationBenchmark {
+
+    @Param({"8", "40", "200"})
+    int fieldCount;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private Map<String, Object> formData;
+    private String formDataJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        formData = Fixtures.formData(fieldCount);
+        formDataJson = json.writeValueAsString(formData);
+    }
+
+    @Benchmark
+    public String writeJson() throws JsonProcessingException {
+        return json.writeValueAsString(formData);
+    }
+
+    @Benchmark
+    public Map<?, ?> readJson() throws IOException {
+        return json.readValue(formDataJson, Map.class);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() throws JsonProcessingException {
+        return smile.writeValueAsBytes(formData);
+    }
+
+    @Benchmark
+    public byte[] writeCbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(formData);
+    }
+}
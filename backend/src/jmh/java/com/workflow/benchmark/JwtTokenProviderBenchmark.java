@@ -0,0 +1,92 @@
+package com.workflow.benchmark;
+
+import com.workflow.config.JwtProperties;
+import com.workflow.model.User;
+import com.workflow.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens: issuing one at login or refresh, and verifying one on every request, both the first time a token is
+ * seen (signature check and parse) and afterwards (a hit in the verified-claims cache). {@link #validateTwiceUnshared}
+ * is the baseline those replaced: a parser built per call, and the token parsed once by {@code validateToken} and
+ * again by {@code getUsernameFromToken}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    /** More distinct tokens than {@link #uncachedProvider} keeps, so each verification misses its cache. */
+    private static final int TOKENS = 4096;
+
+    private JwtTokenProvider provider;
+    private JwtTokenProvider uncachedProvider;
+    private SecretKey key;
+    private User user;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) (31 * i + 7);
+        }
+        String encoded = Base64.getEncoder().encodeToString(secret);
+        key = Keys.hmacShaKeyFor(secret);
+        provider = new JwtTokenProvider(new JwtProperties(encoded, 3_600_000, 86_400_000, 0, null));
+        uncachedProvider = new JwtTokenProvider(new JwtProperties(encoded, 3_600_000, 86_400_000, 1, null));
+        user = Fixtures.user(42, 3);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = provider.generateAccessToken(Fixtures.user(i + 1, 1 + i % 3), i);
+        }
+        if (provider.parseVerifiedClaims(tokens[0]).isEmpty()) {
+            throw new IllegalStateException("Fixture token does not verify");
+        }
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return provider.generateAccessToken(user, 7);
+    }
+
+    @Benchmark
+    public Optional<Claims> validateCached() {
+        return provider.parseVerifiedClaims(tokens[0]);
+    }
+
+    @Benchmark
+    public Optional<Claims> validateUncached() {
+        next = (next + 1) % TOKENS;
+        return uncachedProvider.parseVerifiedClaims(tokens[next]);
+    }
+
+    @Benchmark
+    public String validateTwiceUnshared() {
+        next = (next + 1) % TOKENS;
+        String token = tokens[next];
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+}
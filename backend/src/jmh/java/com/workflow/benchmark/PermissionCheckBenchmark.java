@@ -0,0 +1,95 @@
+package com.workflow.benchmark;
+
+import com.workflow.model.User;
+import com.workflow.security.AuthenticatedUser;
+import com.workflow.security.PermissionAuthorizationManager;
+import com.workflow.security.PermissionRegistry;
+import com.workflow.security.PermissionResolver;
+import com.workflow.security.PermissionSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin check of a non-admin caller (the slow case: nothing matches) on the paths that used to compare role
+ * strings and now test a bit: {@code /api/admin/**} authorization ({@code hasRole("ADMIN")} over the granted
+ * authorities, against {@link PermissionAuthorizationManager}), and {@code TaskService.ensureCanAccessTask} (a scan
+ * of the loaded user's role names, against {@link PermissionResolver#hasRole}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionCheckBenchmark {
+
+    private static final String ADMIN = "ADMIN";
+
+    @Param({"1", "3", "10"})
+    int roleCount;
+
+    private final RequestAuthorizationContext context = new RequestAuthorizationContext(null);
+    private AuthorityAuthorizationManager<RequestAuthorizationContext> authorityManager;
+    private PermissionAuthorizationManager permissionManager;
+    private PermissionResolver resolver;
+    private Authentication authoritiesAuthentication;
+    private Authentication permissionsAuthentication;
+    private User user;
+    private PermissionSet permissions;
+
+    @Setup
+    public void setUp() {
+        PermissionRegistry registry = new PermissionRegistry();
+        // Only resolves principals carrying their set, which needs no role list
+        resolver = new PermissionResolver(registry, null, new NoOpCacheManager());
+        authorityManager = AuthorityAuthorizationManager.hasRole(ADMIN);
+        permissionManager = PermissionAuthorizationManager.hasRole(resolver, registry, ADMIN);
+
+        user = Fixtures.user(42, roleCount);
+        permissions = PermissionSet.of(user.getRoles().stream()
+                .mapToInt(role -> registry.roleBit(role.getName()))
+                .toArray());
+        authoritiesAuthentication = UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null,
+                user.getRoles().stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName())).toList());
+        permissionsAuthentication = UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(user.getId(), user.getUsername(), permissions), null, null);
+    }
+
+    @Benchmark
+    public AuthorizationResult requestAuthorities() {
+        return authorityManager.authorize(() -> authoritiesAuthentication, context);
+    }
+
+    @Benchmark
+    public AuthorizationResult requestPermissionSet() {
+        return permissionManager.authorize(() -> permissionsAuthentication, context);
+    }
+
+    @Benchmark
+    public boolean taskAccessRoleNames() {
+        return user.getRoles().stream().anyMatch(role -> ADMIN.equalsIgnoreCase(role.getName()));
+    }
+
+    @Benchmark
+    public boolean taskAccessPermissionSet() {
+        return resolver.hasRole(permissions, ADMIN);
+    }
+}
@@ -0,0 +1,73 @@
+package com.workflow.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.workflow.dto.WorkflowDto;
+import com.workflow.service.ContentHasher;
+import com.workflow.service.WorkflowDefinitionLoader;
+import com.workflow.service.WorkflowFields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a workflow's rows into its definition DTO ({@link WorkflowDefinitionLoader}, which took over the mapping
+ * from {@code WorkflowService.toDto}), hashing it for the ETag as {@code WorkflowService.getWorkflow} does, and
+ * cutting a partial view ({@code fields=}) from a cached definition. Repositories are stubs returning the fixture
+ * rows ({@link Fixtures#loader}), so only the mapping is measured, not the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkflowDefinitionBenchmark {
+
+    private static final long WORKFLOW_ID = 7;
+
+    /** A typical approval chain, and the largest definitions seen in practice. */
+    @Param({"5", "200"})
+    int steps;
+
+    private WorkflowDefinitionLoader loader;
+    private ContentHasher hasher;
+    private WorkflowDto definition;
+    private WorkflowFields stepsWithoutRules;
+
+    @Setup
+    public void setUp() {
+        Fixtures.Definition rows = Fixtures.definition(WORKFLOW_ID, steps, 6, 2);
+        loader = Fixtures.loader(rows);
+        // As configured by Boot (spring.jackson.serialization.write-dates-as-timestamps=false)
+        hasher = new ContentHasher(new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        definition = loader.load(WORKFLOW_ID).orElseThrow();
+        stepsWithoutRules = WorkflowFields.parse("steps,steps.formFields");
+    }
+
+    @Benchmark
+    public WorkflowDto assemble() {
+        return loader.load(WORKFLOW_ID).orElseThrow();
+    }
+
+    @Benchmark
+    public String contentHash() {
+        return hasher.hash(definition);
+    }
+
+    @Benchmark
+    public WorkflowDto partialView() {
+        return stepsWithoutRules.apply(definition);
+    }
+}
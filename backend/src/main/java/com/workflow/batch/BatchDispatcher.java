@@ -0,0 +1,287 @@
+package com.workflow.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.workflow.config.BatchProperties;
+import com.workflow.config.DiagnosticsProperties;
+import com.workflow.controller.AuthController;
+import com.workflow.controller.BatchController;
+import com.workflow.dto.BatchRequest;
+import com.workflow.dto.BatchResponse;
+import com.workflow.exception.BadRequestException;
+import com.workflow.jdbc.SqlStatistics;
+import com.workflow.jdbc.SqlStatisticsFilter;
+import com.workflow.ratelimit.RateLimitFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.firewall.HttpFirewall;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the calls of a batch through the {@link DispatcherServlet} in-process, without further round trips and
+ * without repeating the work the batch request already did: its token was verified once, by {@code JwtAuthFilter},
+ * and the resulting authentication is reused for every call.
+ * <p>
+ * Each call still goes through the checks the security filter chain would have applied to it: the firewall, the
+ * URL authorization rules and the rate limits. Sign-in and batches themselves cannot be batched; this is decided by
+ * the controller the call resolves to, so that an encoded path (say {@code /api/%61uth/login}) does not get around it. Method security, validation and exception handling apply as usual,
+ * since the call is handled by the same controllers.
+ * <p>
+ * Calls run in order, except that consecutive read-only ones ({@code GET}, {@code HEAD}) run concurrently on
+ * virtual threads, up to {@code app.batch.parallelism} at a time. A write waits for the reads before it, and the
+ * reads after it see what it wrote. Every call has its own status; a failing call does not stop the others.
+ * Their SQL counts towards the batch request's statistics, and per call in its result's headers when these are on.
+ */
+@Component
+public class BatchDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+    private static final Set<Class<?>> NOT_BATCHABLE = Set.of(AuthController.class, BatchController.class);
+    private static final String NOT_BATCHABLE_DETAIL = "Only API calls can be batched, except /api/auth and /api/batch itself";
+
+    private final DispatcherServlet dispatcherServlet;
+    private final HandlerMapping handlerMapping;
+    private final AuthorizationManager<HttpServletRequest> authorizationManager;
+    private final RateLimitFilter rateLimitFilter;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final boolean sqlStatisticsHeader;
+    private final HttpFirewall firewall = new StrictHttpFirewall();
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet,
+                           @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping,
+                           SecurityFilterChain securityFilterChain, RateLimitFilter rateLimitFilter,
+                           ObjectMapper objectMapper, BatchProperties properties,
+                           DiagnosticsProperties diagnosticsProperties) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.handlerMapping = handlerMapping;
+        // The rules of authorizeHttpRequests, applied to each call as the filter applies them to the batch
+        this.authorizationManager = securityFilterChain.getFilters().stream()
+                .filter(AuthorizationFilter.class::isInstance)
+                .map(filter -> ((AuthorizationFilter) filter).getAuthorizationManager())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No AuthorizationFilter in the security filter chain"));
+        this.rateLimitFilter = rateLimitFilter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.sqlStatisticsHeader = diagnosticsProperties.sqlStatistics() && diagnosticsProperties.sqlStatisticsHeader();
+    }
+
+    public List<BatchResponse.Result> dispatch(List<BatchRequest.Operation> operations, HttpServletRequest request,
+                                               HttpServletResponse response) {
+        if (operations.size() > properties.maxRequests()) {
+            throw new BadRequestException("A batch holds at most " + properties.maxRequests() + " requests");
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        BatchResponse.Result[] results = new BatchResponse.Result[operations.size()];
+        // Calls are checked and set up on the request thread: the batch request is not safe to share
+        BatchSubRequest[] calls = new BatchSubRequest[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            try {
+                calls[i] = prepare(operations.get(i), request, authentication);
+            } catch (Rejected rejected) {
+                results[i] = rejected.result;
+            }
+        }
+
+        int start = 0;
+        while (start < calls.length) {
+            int end = start + 1;
+            if (isReadOnly(calls[start])) {
+                while (end < calls.length && isReadOnly(calls[end])) {
+                    end++;
+                }
+            }
+            if (end - start == 1) {
+                if (calls[start] != null) {
+                    results[start] = execute(calls[start], response);
+                }
+            } else {
+                executeConcurrently(calls, start, end, results, response, authentication);
+            }
+            start = end;
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Rejected calls ({@code null}) have their result already and do not separate the reads around them. */
+    private static boolean isReadOnly(BatchSubRequest call) {
+        return call == null || HttpMethod.GET.matches(call.getMethod()) || HttpMethod.HEAD.matches(call.getMethod());
+    }
+
+    private void executeConcurrently(BatchSubRequest[] calls, int start, int end, BatchResponse.Result[] results,
+                                     HttpServletResponse response, Authentication authentication) {
+        AtomicInteger next = new AtomicInteger(start);
+        int workers = Math.min(properties.parallelism(), end - start);
+        SqlStatistics.Recording recording = SqlStatistics.current();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < workers; w++) {
+                executor.execute(() -> {
+                    SecurityContext context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(authentication);
+                    SecurityContextHolder.setContext(context);
+                    try (SqlStatistics.Scope ignored = SqlStatistics.attach(recording)) {
+                        for (int i = next.getAndIncrement(); i < end; i = next.getAndIncrement()) {
+                            if (calls[i] != null) {
+                                results[i] = execute(calls[i], response);
+                            }
+                        }
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                });
+            }
+        }
+    }
+
+    private BatchSubRequest prepare(BatchRequest.Operation operation, HttpServletRequest request,
+                                    Authentication authentication) throws Rejected {
+        String method = operation.method().toUpperCase(Locale.ROOT);
+        String path = operation.path();
+        if (!path.startsWith("/api/")) {
+            throw new Rejected(problem(HttpStatus.BAD_REQUEST, path, NOT_BATCHABLE_DETAIL));
+        }
+        BatchSubRequest call;
+        try {
+            byte[] body = operation.body() != null ? objectMapper.writeValueAsBytes(operation.body()) : null;
+            call = new BatchSubRequest(request, method, path, operation.headers(), body);
+            firewall.getFirewalledRequest(call);
+        } catch (BadRequestException | RequestRejectedException e) {
+            throw new Rejected(problem(HttpStatus.BAD_REQUEST, path, e.getMessage()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!isBatchable(call)) {
+            throw new Rejected(problem(HttpStatus.BAD_REQUEST, path, NOT_BATCHABLE_DETAIL));
+        }
+        AuthorizationResult authorization = authorizationManager.authorize(() -> authentication, call);
+        if (authorization != null && !authorization.isGranted()) {
+            throw new Rejected(problem(HttpStatus.FORBIDDEN, path, "Access Denied"));
+        }
+        long waitNanos = rateLimitFilter.admit(call);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = RateLimitFilter.retryAfterSeconds(waitNanos);
+            BatchResponse.Result limited = problem(HttpStatus.TOO_MANY_REQUESTS, path,
+                    "Rate limit exceeded, retry in " + retryAfterSeconds + "s");
+            limited.headers().put(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            throw new Rejected(limited);
+        }
+        return call;
+    }
+
+    /**
+     * Whether the call resolves to a controller that may be batched. Calls resolving to none are let through: the
+     * dispatch answers them with 404 or 405.
+     */
+    private boolean isBatchable(BatchSubRequest call) {
+        ServletRequestPathUtils.parseAndCache(call);
+        try {
+            HandlerExecutionChain chain = handlerMapping.getHandler(call);
+            return chain == null || !(chain.getHandler() instanceof HandlerMethod handler)
+                    || !NOT_BATCHABLE.contains(handler.getBeanType());
+        } catch (Exception e) {
+            return true;
+        } finally {
+            ServletRequestPathUtils.clearParsedRequestPath(call);
+        }
+    }
+
+    private BatchResponse.Result execute(BatchSubRequest call, HttpServletResponse response) {
+        BatchSubResponse callResponse = new BatchSubResponse(response);
+        try (SqlStatistics.Recording recording = SqlStatistics.record()) {
+            dispatcherServlet.service(call, callResponse);
+            if (sqlStatisticsHeader) {
+                callResponse.setHeader(SqlStatisticsFilter.STATEMENTS_HEADER, String.valueOf(recording.statements()));
+                callResponse.setHeader(SqlStatisticsFilter.ROWS_HEADER, String.valueOf(recording.rows()));
+            }
+        } catch (Exception e) {
+            // Only what GlobalExceptionHandler let through: a streaming call may have set a content type that
+            // the problem detail cannot be written as, or the response failed to render
+            if (e.getCause() instanceof BadRequestException badRequest) {
+                return problem(HttpStatus.BAD_REQUEST, call.pathWithQuery(), badRequest.getMessage());
+            }
+            log.error("Batched {} {} failed", call.getMethod(), call.pathWithQuery(), e);
+            return problem(HttpStatus.INTERNAL_SERVER_ERROR, call.pathWithQuery(), "An unexpected error occurred");
+        }
+        Map<String, String> headers = callResponse.headers();
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return new BatchResponse.Result(callResponse.getStatus(), headers, body(callResponse));
+    }
+
+    /** JSON bodies are embedded as they are, anything else as a string. */
+    private JsonNode body(BatchSubResponse callResponse) {
+        byte[] body = callResponse.body();
+        if (body.length == 0) {
+            return null;
+        }
+        MediaType mediaType = callResponse.mediaType();
+        if (mediaType != null && (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)
+                || "json".equals(mediaType.getSubtypeSuffix()))) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                // Fall through and return it as text
+            }
+        }
+        return TextNode.valueOf(new String(body, callResponse.charset()));
+    }
+
+    private BatchResponse.Result problem(HttpStatus status, String path, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        try {
+            problem.setInstance(URI.create(path));
+        } catch (IllegalArgumentException e) {
+            // Not a valid URI reference; the result's position identifies the call anyway
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        return new BatchResponse.Result(status.value(), headers, objectMapper.valueToTree(problem));
+    }
+
+    /** A call refused before it was dispatched, with its result. */
+    private static final class Rejected extends Exception {
+
+        private final BatchResponse.Result result;
+
+        Rejected(BatchResponse.Result result) {
+            super(null, null, false, false);
+            this.result = result;
+        }
+    }
+}
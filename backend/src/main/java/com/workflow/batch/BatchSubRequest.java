@@ -0,0 +1,381 @@
+package com.workflow.batch;
+
+import com.workflow.exception.BadRequestException;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One call of a batch, presented to the {@code DispatcherServlet} as a request of its own: method, path, query
+ * parameters, headers, body and attributes all belong to the call. Headers are the batch request's (so the
+ * {@code Authorization} and {@code Accept-Language} carry over) except those describing its body, content
+ * negotiation and preconditions, which the call sets itself. Responses are always negotiated as JSON.
+ * <p>
+ * Calls may run concurrently, so everything else read from the batch request is read in the constructor, on the
+ * request thread. Sessions are not available (the API is stateless) and neither is async processing, so streaming
+ * endpoints cannot be batched.
+ */
+class BatchSubRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> OWN_HEADERS = Set.of(
+            "content-type", "content-length", "transfer-encoding", "expect", "accept", "accept-encoding",
+            "if-match", "if-none-match", "if-modified-since", "if-unmodified-since", "if-range", "range");
+
+    private final String method;
+    private final String requestUri;
+    /** Path as the client sent it; the servlet path is its decoded form, as a container provides it. */
+    private final String path;
+    private final String servletPath;
+    private final String queryString;
+    private final String requestUrlBase;
+    private final String contextPath;
+    private final String remoteAddr;
+    private final List<Locale> locales;
+    private final Map<String, String[]> parameters;
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final byte[] body;
+
+    /**
+     * @param pathAndQuery path within the application, with an optional query string
+     * @param body         JSON body, or {@code null}
+     * @throws BadRequestException if the path cannot be parsed
+     */
+    BatchSubRequest(HttpServletRequest batch, String method, String pathAndQuery, Map<String, String> callHeaders,
+                    byte[] body) {
+        super(batch);
+        UriComponents uri;
+        try {
+            uri = UriComponentsBuilder.fromUriString(pathAndQuery).build();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid path '" + pathAndQuery + "'");
+        }
+        if (uri.getScheme() != null || uri.getHost() != null || uri.getFragment() != null || uri.getPath() == null) {
+            throw new BadRequestException("Invalid path '" + pathAndQuery + "'; expected a path like /api/tasks");
+        }
+        this.method = method;
+        this.contextPath = batch.getContextPath();
+        this.path = uri.getPath();
+        try {
+            this.servletPath = UriUtils.decode(path, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid path '" + pathAndQuery + "'");
+        }
+        this.requestUri = contextPath + path;
+        this.queryString = uri.getQuery();
+        this.parameters = decode(uri.getQueryParams());
+        String batchUrl = batch.getRequestURL().toString();
+        this.requestUrlBase = batchUrl.substring(0, batchUrl.length() - batch.getRequestURI().length());
+        this.remoteAddr = batch.getRemoteAddr();
+        this.locales = Collections.list(batch.getLocales());
+        this.body = body;
+
+        for (Enumeration<String> names = batch.getHeaderNames(); names.hasMoreElements(); ) {
+            String name = names.nextElement();
+            if (!OWN_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, Collections.list(batch.getHeaders(name)));
+            }
+        }
+        if (callHeaders != null) {
+            callHeaders.forEach((name, value) -> {
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (!lower.equals("content-type") && !lower.equals("content-length") && !lower.equals("accept")) {
+                    headers.put(name, List.of(value));
+                }
+            });
+        }
+        headers.put(HttpHeaders.ACCEPT, List.of(MediaType.APPLICATION_JSON_VALUE));
+        if (body != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_JSON_VALUE));
+            headers.put(HttpHeaders.CONTENT_LENGTH, List.of(String.valueOf(body.length)));
+        }
+    }
+
+    private static Map<String, String[]> decode(MultiValueMap<String, String> query) {
+        Map<String, String[]> decoded = new LinkedHashMap<>();
+        query.forEach((name, values) -> decoded.put(
+                UriUtils.decode(name, StandardCharsets.UTF_8),
+                values.stream().map(value -> value == null ? "" : UriUtils.decode(value, StandardCharsets.UTF_8))
+                        .toArray(String[]::new)));
+        return decoded;
+    }
+
+    /** Path and query string, as the client sent it. */
+    String pathWithQuery() {
+        return queryString == null ? path : path + "?" + queryString;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(requestUrlBase).append(requestUri);
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(new ArrayList<>(headers.keySet()));
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        HttpHeaders parsed = new HttpHeaders();
+        parsed.set(name, value);
+        return parsed.getFirstDate(name);
+    }
+
+    @Override
+    public String getContentType() {
+        return body != null ? MediaType.APPLICATION_JSON_VALUE : null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return body != null ? body.length : -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return body != null ? StandardCharsets.UTF_8.name() : null;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        // The body is always UTF-8 JSON
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body != null ? body : new byte[0]);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException("Batched calls are read synchronously");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locales.isEmpty() ? Locale.getDefault() : locales.get(0);
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(locales);
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new IllegalStateException("Batched calls have no session");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    /** Reported as supported so that starting it fails with a client error instead of an assertion. */
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw streamingNotSupported();
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw streamingNotSupported();
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Batched calls are not asynchronous");
+    }
+
+    private BadRequestException streamingNotSupported() {
+        return new BadRequestException(method + " " + path + " streams its response and cannot be batched");
+    }
+}
@@ -0,0 +1,306 @@
+package com.workflow.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The response of one batched call, buffered in memory. Nothing reaches the batch's own response: status, headers
+ * and body are all kept here, and the response never counts as committed, so error handling can always replace
+ * what a failing handler started to write.
+ */
+class BatchSubResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+    private int status = HttpStatus.OK.value();
+    private String characterEncoding;
+    private Locale locale = Locale.getDefault();
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BatchSubResponse(HttpServletResponse batch) {
+        super(batch);
+    }
+
+    byte[] body() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toByteArray();
+    }
+
+    /** Multiple values of a header are joined with commas. */
+    Map<String, String> headers() {
+        Map<String, String> joined = new LinkedCaseInsensitiveMap<>(headers.size(), Locale.ROOT);
+        headers.forEach((name, values) -> joined.put(name, String.join(", ", values)));
+        return joined;
+    }
+
+    MediaType mediaType() {
+        String contentType = getContentType();
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    Charset charset() {
+        return Charset.forName(getCharacterEncoding());
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+        resetBuffer();
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        this.status = HttpStatus.FOUND.value();
+        setHeader(HttpHeaders.LOCATION, location);
+        resetBuffer();
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(cookie.getName(), cookie.getValue())
+                .path(cookie.getPath())
+                .maxAge(cookie.getMaxAge())
+                .httpOnly(cookie.isHttpOnly())
+                .secure(cookie.getSecure())
+                .build()
+                .toString());
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return new ArrayList<>(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new ArrayList<>(headers.keySet());
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.put(name, new ArrayList<>(List.of(value)));
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (value != null) {
+            headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        HttpHeaders formatted = new HttpHeaders();
+        formatted.setDate(name, date);
+        setHeader(name, formatted.getFirst(name));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        HttpHeaders formatted = new HttpHeaders();
+        formatted.setDate(name, date);
+        addHeader(name, formatted.getFirst(name));
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        if (contentType == null) {
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return;
+        }
+        headers.put(HttpHeaders.CONTENT_TYPE, new ArrayList<>(List.of(contentType)));
+        try {
+            Charset charset = MediaType.parseMediaType(contentType).getCharset();
+            if (charset != null) {
+                characterEncoding = charset.name();
+            }
+        } catch (IllegalArgumentException e) {
+            // Kept as given; the body is then returned as text
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding != null ? characterEncoding : StandardCharsets.ISO_8859_1.name();
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        this.characterEncoding = encoding;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        // Known from the buffer
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        // Known from the buffer
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("Batched calls are written synchronously");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // Always fully buffered
+    }
+
+    @Override
+    public int getBufferSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = HttpStatus.OK.value();
+        characterEncoding = null;
+    }
+}
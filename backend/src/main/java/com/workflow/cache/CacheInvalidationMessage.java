@@ -0,0 +1,48 @@
+package com.workflow.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.lang.Nullable;
+
+/**
+ * Broadcast to every node when a two-tier cache entry changes, so peers drop their L1 copy. Sent as plain JSON:
+ * the key travels as text with its type, limited to the key types the caches use (ids and usernames). A
+ * {@code null} key means the whole cache was cleared; so does a key of any other type, which peers cannot rebuild.
+ */
+public record CacheInvalidationMessage(
+        String origin,
+        String cacheName,
+        @Nullable String key,
+        @Nullable KeyType keyType
+) {
+
+    public enum KeyType {
+        LONG,
+        STRING
+    }
+
+    public static CacheInvalidationMessage of(String origin, String cacheName, @Nullable Object key) {
+        return switch (key) {
+            case Long id -> new CacheInvalidationMessage(origin, cacheName, id.toString(), KeyType.LONG);
+            case String text -> new CacheInvalidationMessage(origin, cacheName, text, KeyType.STRING);
+            case null, default -> new CacheInvalidationMessage(origin, cacheName, null, null);
+        };
+    }
+
+    @JsonIgnore
+    public boolean isClear() {
+        return key == null || keyType == null;
+    }
+
+    /** The key as the caches hold it, or {@code null} for a clear. */
+    @JsonIgnore
+    @Nullable
+    public Object cacheKey() {
+        if (isClear()) {
+            return null;
+        }
+        return switch (keyType) {
+            case LONG -> Long.valueOf(key);
+            case STRING -> key;
+        };
+    }
+}
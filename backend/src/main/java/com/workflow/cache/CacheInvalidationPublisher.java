@@ -0,0 +1,10 @@
+package com.workflow.cache;
+
+/** Sends L1 invalidations to the other nodes (e.g. over Redis pub/sub). */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+
+    CacheInvalidationPublisher NONE = message -> {};
+
+    void publish(CacheInvalidationMessage message);
+}
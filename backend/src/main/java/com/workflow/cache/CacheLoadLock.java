@@ -0,0 +1,30 @@
+package com.workflow.cache;
+
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Cluster-wide mutex around loading one cache key, so that after a shared-tier miss only one node runs the
+ * loader while the others wait for its result to appear in L2.
+ */
+public interface CacheLoadLock {
+
+    /** Single node: the local L1 already coalesces concurrent loads, so the lock is always granted. */
+    CacheLoadLock NONE = new CacheLoadLock() {
+        @Override
+        public String tryAcquire(String lockKey, Duration ttl) {
+            return "";
+        }
+
+        @Override
+        public void release(String lockKey, String token) {
+        }
+    };
+
+    /** @return a token to pass to {@link #release}, or {@code null} if another node holds the lock */
+    @Nullable
+    String tryAcquire(String lockKey, Duration ttl);
+
+    void release(String lockKey, String token);
+}
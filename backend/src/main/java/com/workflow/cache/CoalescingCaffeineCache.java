@@ -0,0 +1,103 @@
+package com.workflow.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link CaffeineCache} whose {@link #get(Object, Callable)} coalesces concurrent loads of a key without running
+ * the loader inside Caffeine's {@code compute}. That computation holds a {@code synchronized} map-bin lock for the
+ * whole load, so on Java 21 a virtual thread blocking on JDBC or Redis there pins its carrier thread (and
+ * blocks unrelated keys of the same bin). Here the first caller loads on its own thread, holding no lock, and the
+ * others wait on its future.
+ * <p>
+ * An evict or clear during a load marks it stale: its result is still returned to the waiting callers but is not
+ * left in the cache, as Caffeine's compute would have guaranteed by blocking the eviction.
+ */
+public class CoalescingCaffeineCache extends CaffeineCache {
+
+    private final ConcurrentMap<Object, Load> loads = new ConcurrentHashMap<>();
+
+    public CoalescingCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                   boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        Load load = new Load();
+        Load inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.result.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            // Another load may have finished between the miss above and registering this one
+            cached = get(key);
+            T value = cached != null ? (T) cached.get() : valueLoader.call();
+            if (cached == null) {
+                put(key, value);
+                if (load.stale) {
+                    super.evict(key);
+                }
+            }
+            load.result.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.result.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        markStale(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        markStale(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        loads.values().forEach(load -> load.stale = true);
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        loads.values().forEach(load -> load.stale = true);
+        return super.invalidate();
+    }
+
+    private void markStale(Object key) {
+        Load load = loads.get(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    private static final class Load {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile boolean stale;
+    }
+}
@@ -0,0 +1,54 @@
+package com.workflow.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link CacheLoadLock} backed by {@code SET NX PX}. The lock expires on its own if the holder dies;
+ * release only deletes the key if it still carries the holder's token.
+ */
+public class RedisCacheLoadLock implements CacheLoadLock {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheLoadLock.class);
+
+    private static final String KEY_PREFIX = "workflow:cache-lock:";
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheLoadLock(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    @Nullable
+    public String tryAcquire(String lockKey, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + lockKey, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            // Fail open: without Redis every node loads for itself, as it would with no lock at all
+            log.warn("Could not acquire cache load lock '{}': {}", lockKey, e.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void release(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(KEY_PREFIX + lockKey), token);
+        } catch (RuntimeException e) {
+            log.warn("Could not release cache load lock '{}': {}", lockKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.workflow.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Redis value serializer writing DTOs as Jackson Smile (binary JSON with back-referenced field names)
+ * instead of textual JSON with an {@code @class} property on every object.
+ * <p>
+ * Layout: one format byte, then either the Smile payload or (above the compression threshold)
+ * the uncompressed length followed by an LZ4 block. The Smile payload is an array of
+ * {@code [kind, className, value]} where kind is {@code object} or {@code list}; only classes from
+ * {@code com.workflow.dto} are accepted when reading.
+ */
+public class SmileCacheSerializer implements RedisSerializer<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(SmileCacheSerializer.class);
+
+    private static final byte FORMAT_SMILE = 1;
+    private static final byte FORMAT_SMILE_LZ4 = 2;
+    private static final String KIND_OBJECT = "object";
+    private static final String KIND_LIST = "list";
+    private static final String ALLOWED_PACKAGE = "com.workflow.dto.";
+
+    private final ObjectMapper mapper = new ObjectMapper(new SmileFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /** @param compressionThreshold payload size in bytes above which LZ4 is applied; 0 disables compression */
+    public SmileCacheSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] smile = writeSmile(value);
+        if (compressionThreshold > 0 && smile.length > compressionThreshold) {
+            byte[] compressed = compressor.compress(smile);
+            if (compressed.length + Integer.BYTES < smile.length) {
+                return ByteBuffer.allocate(1 + Integer.BYTES + compressed.length)
+                        .put(FORMAT_SMILE_LZ4)
+                        .putInt(smile.length)
+                        .put(compressed)
+                        .array();
+            }
+        }
+        byte[] out = new byte[smile.length + 1];
+        out[0] = FORMAT_SMILE;
+        System.arraycopy(smile, 0, out, 1, smile.length);
+        return out;
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte[] smile;
+        switch (bytes[0]) {
+            case FORMAT_SMILE -> {
+                smile = new byte[bytes.length - 1];
+                System.arraycopy(bytes, 1, smile, 0, smile.length);
+            }
+            case FORMAT_SMILE_LZ4 -> {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+                smile = decompressor.decompress(bytes, 1 + Integer.BYTES, buffer.getInt());
+            }
+            default -> {
+                // Entry written by another encoding (e.g. JSON before a switch-over): treat as a miss
+                log.debug("Ignoring cache value with unknown format byte {}", bytes[0]);
+                return null;
+            }
+        }
+        return readSmile(smile);
+    }
+
+    private byte[] writeSmile(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            if (value instanceof List<?> list) {
+                generator.writeString(KIND_LIST);
+                generator.writeString(list.isEmpty() ? null : list.get(0).getClass().getName());
+            } else {
+                generator.writeString(KIND_OBJECT);
+                generator.writeString(value.getClass().getName());
+            }
+            mapper.writeValue(generator, value);
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private Object readSmile(byte[] smile) {
+        try (JsonParser parser = mapper.createParser(smile)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new SerializationException("Malformed cache value: missing envelope");
+            }
+            String kind = parser.nextTextValue();
+            String className = parser.nextTextValue();
+            parser.nextToken();
+            JavaType type;
+            if (KIND_LIST.equals(kind)) {
+                type = mapper.getTypeFactory().constructCollectionType(List.class,
+                        className != null ? resolve(className) : Object.class);
+            } else {
+                type = mapper.getTypeFactory().constructType(resolve(className));
+            }
+            return mapper.readValue(parser, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+
+    private static Class<?> resolve(String className) {
+        if (className == null || !className.startsWith(ALLOWED_PACKAGE)) {
+            throw new SerializationException("Refusing to deserialize cache value of type " + className);
+        }
+        try {
+            return Class.forName(className, false, SmileCacheSerializer.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new SerializationException("Unknown cache value type " + className, e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.workflow.cache;
+
+import com.workflow.dto.CacheStatsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache that reads a node-local L1 (Caffeine) first, then the shared L2 (Redis), then the loader.
+ * Writes go to both tiers; every put, evict and clear is also published so other nodes drop their L1 copy.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} (i.e. {@code @Cacheable(sync = true)}) are single-flight:
+ * L1 runs at most one load per key on a node, and a {@link CacheLoadLock} lets only one node load a key
+ * missing from L2 while the others wait for it there. Entries past the refresh-ahead point are reloaded by
+ * the first caller that sees them, before they expire, while concurrent callers keep the current value.
+ * <p>
+ * A load or refresh that an evict, clear or peer invalidation overtook does not write its result back: it was
+ * read before the change that caused the invalidation, and in L2 it would outlive that change for the whole TTL on
+ * every node. Invalidations bump a generation (per stripe of keys, plus one for clears) that each load reads before
+ * calling the loader and checks again around its write. Peer invalidations arrive through pub/sub, so a load on
+ * another node can still write back within that delivery latency.
+ */
+public class TwoTierCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private static final long LOCK_POLL_MILLIS = 25;
+    /** Keys sharing a stripe also share invalidations; a false match only skips one write-back. */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final String name;
+    private final Cache local;
+    private final Cache remote;
+    private final TwoTierCacheManager manager;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder invalidationsSent = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder lockWaits = new LongAdder();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLongArray keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    TwoTierCache(String name, Cache local, Cache remote, TwoTierCacheManager manager) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        value = remote.get(key);
+        if (value != null) {
+            l2Hits.increment();
+            local.put(key, value.get());
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            l1Hits.increment();
+            return isDueForRefresh(key) ? refresh(key, valueLoader, (T) value.get()) : (T) value.get();
+        }
+        // L1 computes at most once per key on this node; concurrent callers wait for the same load
+        return local.get(key, () -> loadShared(key, valueLoader));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadShared(Object key, Callable<T> valueLoader) throws Exception {
+        ValueWrapper shared = remote.get(key);
+        if (shared != null) {
+            l2Hits.increment();
+            return (T) shared.get();
+        }
+        String lockKey = name + "::" + key;
+        Duration timeout = manager.getLoadLockTimeout();
+        String token = manager.getLoadLock().tryAcquire(lockKey, timeout);
+        if (token == null) {
+            // Another node is loading this key; its result lands in L2
+            lockWaits.increment();
+            shared = awaitRemote(key, timeout);
+            if (shared != null) {
+                l2Hits.increment();
+                return (T) shared.get();
+            }
+            log.debug("Gave up waiting for load of '{}', loading locally", lockKey);
+            return loadAndStore(key, valueLoader);
+        }
+        try {
+            return loadAndStore(key, valueLoader);
+        } finally {
+            manager.getLoadLock().release(lockKey, token);
+        }
+    }
+
+    private <T> T loadAndStore(Object key, Callable<T> valueLoader) throws Exception {
+        misses.increment();
+        long generation = generation(key);
+        T loaded = valueLoader.call();
+        if (loaded != null && generation(key) == generation) {
+            remote.put(key, loaded);
+            if (generation(key) != generation) {
+                // Invalidated between the check and the write; its eviction may already have run
+                remote.evict(key);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Number of times the whole cache was cleared, here or by a peer. State derived from all of its entries
+     * (e.g. from a list cached under one key and evicted with {@code allEntries}) is stale once this moves.
+     */
+    public long clears() {
+        return clearGeneration.get();
+    }
+
+    /** Changes whenever {@code key} may have been invalidated; compare before and after a load. */
+    private long generation(Object key) {
+        return keyGenerations.get(stripe(key)) + clearGeneration.get();
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    /** Called before the tiers are changed, so a load that checks afterwards sees the bump. */
+    private void bumpGeneration(@Nullable Object key) {
+        if (key == null) {
+            clearGeneration.incrementAndGet();
+        } else {
+            keyGenerations.incrementAndGet(stripe(key));
+        }
+    }
+
+    @Nullable
+    private ValueWrapper awaitRemote(Object key, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper shared = remote.get(key);
+            if (shared != null) {
+                return shared;
+            }
+        }
+        return null;
+    }
+
+    private boolean isDueForRefresh(Object key) {
+        double refreshAhead = manager.getRefreshAhead();
+        if (refreshAhead <= 0 || !(local instanceof CaffeineCache caffeine)) {
+            return false;
+        }
+        return caffeine.getNativeCache().policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(key)
+                        .map(age -> age.toMillis() >= expiration.getExpiresAfter().toMillis() * refreshAhead))
+                .orElse(false);
+    }
+
+    /** Reloads an entry on the calling thread; only one caller per key does so, the rest keep {@code current}. */
+    private <T> T refresh(Object key, Callable<T> valueLoader, T current) {
+        if (!refreshing.add(key)) {
+            return current;
+        }
+        try {
+            long generation = generation(key);
+            T fresh = valueLoader.call();
+            if (fresh == null) {
+                return current;
+            }
+            if (generation(key) != generation) {
+                // Invalidated while reloading: the entry is gone from both tiers, the next read loads it anew
+                return fresh;
+            }
+            remote.put(key, fresh);
+            local.put(key, fresh);
+            if (generation(key) != generation) {
+                remote.evict(key);
+                local.evict(key);
+            }
+            refreshes.increment();
+            return fresh;
+        } catch (Exception e) {
+            // Keep serving the current value; it is reloaded normally once it expires
+            log.warn("Refresh-ahead of '{}::{}' failed: {}", name, key, e.getMessage());
+            return current;
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        puts.increment();
+        bumpGeneration(key);
+        if (value != null) {
+            remote.put(key, value);
+        } else {
+            remote.evict(key);
+        }
+        local.put(key, value);
+        publishInvalidation(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        bumpGeneration(key);
+        remote.evict(key);
+        local.evict(key);
+        publishInvalidation(key);
+    }
+
+    @Override
+    public void clear() {
+        bumpGeneration(null);
+        remote.clear();
+        local.clear();
+        publishInvalidation(null);
+    }
+
+    private void publishInvalidation(@Nullable Object key) {
+        invalidationsSent.increment();
+        manager.publish(name, key);
+    }
+
+    /** Applies an invalidation received from another node; the shared tier was already updated by the sender. */
+    void invalidateLocal(@Nullable Object key) {
+        invalidationsReceived.increment();
+        bumpGeneration(key);
+        if (key == null) {
+            local.clear();
+        } else {
+            local.evict(key);
+        }
+    }
+
+    long puts() {
+        return puts.sum();
+    }
+
+    CacheStatsDto stats() {
+        long l1Size = local instanceof CaffeineCache caffeine ? caffeine.getNativeCache().estimatedSize() : -1;
+        return new CacheStatsDto(
+                name,
+                l1Hits.sum(),
+                l2Hits.sum(),
+                misses.sum(),
+                l1Size,
+                invalidationsSent.sum(),
+                invalidationsReceived.sum(),
+                refreshes.sum(),
+                lockWaits.sum()
+        );
+    }
+}
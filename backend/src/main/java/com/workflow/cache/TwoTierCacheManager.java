@@ -0,0 +1,120 @@
+package com.workflow.cache;
+
+import com.workflow.dto.CacheStatsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Layers a node-local {@link CacheManager} (L1) over a shared one (L2) for a fixed set of cache names.
+ * L1 invalidations are exchanged with other nodes through the
+ * {@link CacheInvalidationPublisher} and applied via {@link #onInvalidation(CacheInvalidationMessage)}.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheManager localManager;
+    private final CacheManager remoteManager;
+    private final CacheInvalidationPublisher publisher;
+    private final Set<String> cacheNames;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private CacheLoadLock loadLock = CacheLoadLock.NONE;
+    private Duration loadLockTimeout = Duration.ofSeconds(5);
+    private double refreshAhead;
+
+    public TwoTierCacheManager(CacheManager localManager, CacheManager remoteManager,
+                               CacheInvalidationPublisher publisher, Set<String> cacheNames) {
+        this.localManager = localManager;
+        this.remoteManager = remoteManager;
+        this.publisher = publisher;
+        this.cacheNames = Set.copyOf(cacheNames);
+    }
+
+    /** Lock serializing shared-tier misses of the same key across nodes; defaults to {@link CacheLoadLock#NONE}. */
+    public void setLoadLock(CacheLoadLock loadLock) {
+        this.loadLock = loadLock;
+    }
+
+    /** How long a node waits for another node's load (and how long that node may hold the lock). */
+    public void setLoadLockTimeout(Duration loadLockTimeout) {
+        this.loadLockTimeout = loadLockTimeout;
+    }
+
+    /**
+     * Fraction of the L1 expire-after-write TTL after which the next hit reloads the entry while other
+     * callers keep getting the current value; 0 disables refresh-ahead.
+     */
+    public void setRefreshAhead(double refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(String name) {
+        if (!cacheNames.contains(name)) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            Cache local = localManager.getCache(n);
+            Cache remote = remoteManager.getCache(n);
+            return local != null && remote != null ? new TwoTierCache(n, local, remote, this) : null;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cacheNames;
+    }
+
+    public List<CacheStatsDto> stats() {
+        return getCacheNames().stream()
+                .map(this::getCache)
+                .filter(TwoTierCache.class::isInstance)
+                .map(cache -> ((TwoTierCache) cache).stats())
+                .toList();
+    }
+
+    /** Drops the L1 entry (or the whole L1 cache) named in a message published by another node. */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (message == null || nodeId.equals(message.origin())) {
+            return;
+        }
+        TwoTierCache cache = caches.get(message.cacheName());
+        if (cache != null) {
+            cache.invalidateLocal(message.cacheKey());
+        }
+    }
+
+    CacheLoadLock getLoadLock() {
+        return loadLock;
+    }
+
+    Duration getLoadLockTimeout() {
+        return loadLockTimeout;
+    }
+
+    double getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    void publish(String cacheName, @Nullable Object key) {
+        try {
+            publisher.publish(CacheInvalidationMessage.of(nodeId, cacheName, key));
+        } catch (RuntimeException e) {
+            // Peers fall back to their L1 TTL; the local write already succeeded
+            log.warn("Failed to publish invalidation for cache '{}': {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.workflow.cache;
+
+import com.workflow.dto.CacheStatsDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The standard {@code cache.*} meters of a {@link TwoTierCache}, counting a hit in either tier as a hit and
+ * reporting the L1 size, plus what is specific to two tiers: {@code cache.tier.hits} per {@code tier},
+ * {@code cache.invalidations} per {@code direction}, {@code cache.refreshes} and {@code cache.load.lock.waits}.
+ * Each tier's own cache ({@code cacheManager} tag {@code caffeineCacheManager} or {@code redisCacheManager})
+ * is metered by Spring Boot as well.
+ */
+public class TwoTierCacheMetrics extends CacheMeterBinder<TwoTierCache> {
+
+    TwoTierCacheMetrics(TwoTierCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoTierCache cache = getCache();
+        return cache != null ? cache.stats().l1Size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoTierCache cache = getCache();
+        if (cache == null) {
+            return 0;
+        }
+        CacheStatsDto stats = cache.stats();
+        return stats.l1Hits() + stats.l2Hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoTierCache cache = getCache();
+        return cache != null ? cache.stats().misses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        // Expiry and eviction happen inside each tier and are reported there
+        return null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoTierCache cache = getCache();
+        return cache != null ? cache.puts() : 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoTierCache cache = getCache();
+        counter(registry, cache, "cache.tier.hits", "Hits served by one tier", "tier", "l1",
+                c -> c.stats().l1Hits());
+        counter(registry, cache, "cache.tier.hits", "Hits served by one tier", "tier", "l2",
+                c -> c.stats().l2Hits());
+        counter(registry, cache, "cache.invalidations", "Invalidation messages", "direction", "sent",
+                c -> c.stats().invalidationsSent());
+        counter(registry, cache, "cache.invalidations", "Invalidation messages", "direction", "received",
+                c -> c.stats().invalidationsReceived());
+        counter(registry, cache, "cache.refreshes", "Entries reloaded ahead of expiry", null, null,
+                c -> c.stats().refreshes());
+        counter(registry, cache, "cache.load.lock.waits", "Loads that waited for another node's load", null, null,
+                c -> c.stats().lockWaits());
+    }
+
+    private void counter(MeterRegistry registry, TwoTierCache cache, String name, String description,
+                         String tagKey, String tagValue, ToDoubleFunction<TwoTierCache> count) {
+        FunctionCounter.Builder<TwoTierCache> builder = FunctionCounter.builder(name, cache, count)
+                .description(description)
+                .tags(getTagsWithCacheName());
+        if (tagKey != null) {
+            builder.tag(tagKey, tagValue);
+        }
+        builder.register(registry);
+    }
+
+    /** Lets Spring Boot bind the caches of {@link TwoTierCacheManager} like those of its own cache managers. */
+    public static class Provider implements CacheMeterBinderProvider<TwoTierCache> {
+
+        @Override
+        public CacheMeterBinder<TwoTierCache> getMeterBinder(TwoTierCache cache, Iterable<Tag> tags) {
+            return new TwoTierCacheMetrics(cache, tags);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.workflow.concurrent;
+
+import com.workflow.jdbc.SqlStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs a few independent reads concurrently on virtual threads and joins them, with the semantics of
+ * {@code StructuredTaskScope.ShutdownOnFailure} (a preview API on Java 21): the first failing branch cancels the
+ * others, {@link #join} rethrows that failure, and no branch outlives the scope.
+ * <pre>{@code
+ * try (FailFastScope scope = new FailFastScope()) {
+ *     Supplier<A> a = scope.fork(() -> loadA());
+ *     Supplier<B> b = scope.fork(() -> loadB());
+ *     scope.join();
+ *     return combine(a.get(), b.get());
+ * }
+ * }</pre>
+ * Branches run on fresh threads, so they see no transaction, persistence context or security context of the
+ * caller; each must open what it needs itself (e.g. call a transactional repository method). Their SQL counts
+ * towards the caller's {@link SqlStatistics} recording.
+ */
+public final class FailFastScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> forks = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /** Starts a branch; the returned supplier gives its result once {@link #join} has returned normally. */
+    public <T> Supplier<T> fork(Callable<T> task) {
+        SqlStatistics.Recording recording = SqlStatistics.current();
+        Future<T> future = executor.submit(() -> {
+            try (SqlStatistics.Scope ignored = SqlStatistics.attach(recording)) {
+                return task.call();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            }
+        });
+        synchronized (forks) {
+            forks.add(future);
+        }
+        if (failure.get() != null) {
+            future.cancel(true);
+        }
+        return () -> {
+            if (!future.isDone() || failure.get() != null) {
+                throw new IllegalStateException("Branch result read before a successful join");
+            }
+            return future.resultNow();
+        };
+    }
+
+    /** Waits for all branches, or for the first failure, which is rethrown as is when unchecked. */
+    public void join() {
+        List<Future<?>> started;
+        synchronized (forks) {
+            started = List.copyOf(forks);
+        }
+        try {
+            for (Future<?> future : started) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for concurrent reads", e);
+        } catch (ExecutionException | CancellationException e) {
+            // A cancelled branch means another one failed first; that failure is the one to report
+        }
+        Throwable first = failure.get();
+        if (first instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (first instanceof Error error) {
+            throw error;
+        }
+        if (first != null) {
+            throw new IllegalStateException(first);
+        }
+    }
+
+    /** Cancels branches still running and waits for them to finish. */
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        synchronized (forks) {
+            forks.forEach(future -> future.cancel(true));
+        }
+    }
+}
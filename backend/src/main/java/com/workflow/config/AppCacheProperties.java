@@ -0,0 +1,52 @@
+package com.workflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Shared cache tuning: Redis (L2) value encoding and load coalescing.
+ *
+ * @param serializer           {@code smile} (compact binary, default) or {@code json} (GenericJackson2JsonRedisSerializer)
+ * @param compressionThreshold encoded size in bytes above which values are LZ4-compressed; 0 disables compression
+ * @param refreshAhead         fraction of the L1 TTL after which a hit reloads the entry early; 0 disables
+ * @param loadLockTimeout      how long a node waits on another node loading the same key before loading itself
+ * @param warmup               startup preloading of the caches, see {@link Warmup}
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record AppCacheProperties(
+        String serializer,
+        int compressionThreshold,
+        double refreshAhead,
+        Duration loadLockTimeout,
+        Warmup warmup
+) {
+    public AppCacheProperties {
+        if (serializer == null || serializer.isBlank()) {
+            serializer = "smile";
+        }
+        if (loadLockTimeout == null) {
+            loadLockTimeout = Duration.ofSeconds(5);
+        }
+        if (warmup == null) {
+            warmup = new Warmup(true, null, 0, 0);
+        }
+    }
+
+    /**
+     * @param enabled     preload caches before the application reports ready
+     * @param budget      wall-clock limit; loads still running afterwards are cancelled and startup continues
+     * @param concurrency parallel loads, kept well below the connection pool size
+     * @param recentUsers how many recently active users get their {@code UserDetails} preloaded
+     */
+    public record Warmup(boolean enabled, Duration budget, int concurrency, int recentUsers) {
+        public Warmup {
+            if (budget == null) {
+                budget = Duration.ofSeconds(30);
+            }
+            if (concurrency <= 0) {
+                concurrency = 4;
+            }
+        }
+    }
+}
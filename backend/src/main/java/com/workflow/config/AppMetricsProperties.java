@@ -0,0 +1,31 @@
+package com.workflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits on the tag values of the workflow engine's own meters. Every distinct tag value is a time series kept
+ * by each node and by Prometheus, so ids are only used as tag values up to these limits; values seen after that
+ * are reported as {@code other}.
+ *
+ * @param maxTaggedWorkflows workflow ids tagged individually ({@code workflow} tag)
+ * @param maxTaggedSteps     step positions tagged individually ({@code step} tag, per workflow)
+ * @param maxTaggedRules     business rule ids tagged individually ({@code rule} tag)
+ */
+@ConfigurationProperties(prefix = "app.metrics")
+public record AppMetricsProperties(
+        int maxTaggedWorkflows,
+        int maxTaggedSteps,
+        int maxTaggedRules
+) {
+    public AppMetricsProperties {
+        if (maxTaggedWorkflows <= 0) {
+            maxTaggedWorkflows = 100;
+        }
+        if (maxTaggedSteps <= 0) {
+            maxTaggedSteps = 30;
+        }
+        if (maxTaggedRules <= 0) {
+            maxTaggedRules = 300;
+        }
+    }
+}
@@ -2,8 +2,46 @@ package com.workflow.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * @param h2ConsoleEnabled expose the H2 console (dev only)
+ * @param secureCookies    mark the refresh token cookie Secure (HTTPS only)
+ * @param passwordHashing  BCrypt work factor and the executor it runs on, see {@link PasswordHashing}
+ */
 @ConfigurationProperties(prefix = "app.security")
 public record AppSecurityProperties(
         boolean h2ConsoleEnabled,
-        boolean secureCookies
-) {}
+        boolean secureCookies,
+        PasswordHashing passwordHashing
+) {
+    public AppSecurityProperties {
+        if (passwordHashing == null) {
+            passwordHashing = new PasswordHashing(0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * @param strength      initial BCrypt work factor (log2 rounds); can be changed at runtime from the admin API
+     * @param maxStrength   highest work factor the admin API accepts; each step doubles the cost of every login
+     * @param threads       hashing threads; defaults to half the available processors
+     * @param queueCapacity hash requests allowed to wait for a thread before new ones are rejected with 503
+     */
+    public record PasswordHashing(int strength, int maxStrength, int threads, int queueCapacity) {
+        public PasswordHashing {
+            if (strength <= 0) {
+                strength = 10;
+            }
+            if (maxStrength <= 0) {
+                maxStrength = 14;
+            }
+            if (strength > maxStrength) {
+                throw new IllegalArgumentException("BCrypt strength " + strength + " is above max-strength " + maxStrength);
+            }
+            if (threads <= 0) {
+                threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            }
+            if (queueCapacity <= 0) {
+                queueCapacity = 64;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.workflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Request batching ({@code POST /api/batch}).
+ *
+ * @param maxRequests calls accepted in one batch
+ * @param parallelism read-only calls of one batch run at the same time; each may hold a pooled connection
+ */
+@ConfigurationProperties(prefix = "app.batch")
+public record BatchProperties(
+        int maxRequests,
+        int parallelism
+) {
+    public BatchProperties {
+        if (maxRequests <= 0) {
+            maxRequests = 20;
+        }
+        if (parallelism <= 0) {
+            parallelism = 4;
+        }
+    }
+}
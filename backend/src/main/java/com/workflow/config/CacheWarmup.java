@@ -0,0 +1,144 @@
+package com.workflow.config;
+
+import com.workflow.dto.CacheWarmupDto;
+import com.workflow.model.WorkflowStatus;
+import com.workflow.repository.WorkflowInstanceRepository;
+import com.workflow.repository.WorkflowRepository;
+import com.workflow.service.RoleService;
+import com.workflow.service.WorkflowService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the shared caches and the most recently active users' {@code UserDetails} after {@link DataSeeder}.
+ * Runners complete before {@code ApplicationReadyEvent}, so the readiness state only turns to
+ * ACCEPTING_TRAFFIC once warm-up has finished or its budget has run out.
+ * <p>
+ * Loads run on virtual threads, with a semaphore bounding how many hold a database connection at once.
+ * <p>
+ * Meters: {@code cache.warmup.loads.total}, {@code cache.warmup.loads.completed}, {@code cache.warmup.loads.failed}
+ * and {@code cache.warmup.duration}, the same numbers as {@link #status()}.
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmup implements CommandLineRunner, MeterBinder {
+
+    private final AppCacheProperties cacheProperties;
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowInstanceRepository instanceRepository;
+    private final WorkflowService workflowService;
+    private final RoleService roleService;
+    private final UserDetailsService userDetailsService;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile String state = "PENDING";
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        AppCacheProperties.Warmup warmup = cacheProperties.warmup();
+        if (!warmup.enabled()) {
+            state = "DISABLED";
+            return;
+        }
+        startedAt = System.nanoTime();
+        state = "RUNNING";
+
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(roleService::getAllRoles);
+        for (Long id : workflowRepository.findIdsByStatus(WorkflowStatus.PUBLISHED)) {
+            tasks.add(() -> workflowService.getPublishedWorkflow(id));
+            tasks.add(() -> workflowService.getWorkflow(id));
+        }
+        if (warmup.recentUsers() > 0) {
+            for (String username : instanceRepository.findRecentlyActiveUsernames(PageRequest.of(0, warmup.recentUsers()))) {
+                tasks.add(() -> userDetailsService.loadUserByUsername(username));
+            }
+        }
+        total.set(tasks.size());
+
+        Semaphore permits = new Semaphore(warmup.concurrency());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (Runnable task : tasks) {
+                executor.execute(() -> runTask(task, permits));
+            }
+            executor.shutdown();
+            boolean done = executor.awaitTermination(warmup.budget().toMillis(), TimeUnit.MILLISECONDS);
+            state = done ? "COMPLETED" : "BUDGET_EXCEEDED";
+        } finally {
+            executor.shutdownNow();
+            finishedAt = System.nanoTime();
+        }
+        CacheWarmupDto status = status();
+        log.info("Cache warm-up {}: {}/{} loaded, {} failed in {} ms",
+                status.state(), status.completed(), status.total(), status.failed(), status.elapsedMillis());
+    }
+
+    private void runTask(Runnable task, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // Budget ran out before this load started
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            task.run();
+            int done = completed.incrementAndGet();
+            if (done % 100 == 0) {
+                log.info("Cache warm-up progress: {}/{}", done, total.get());
+            }
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.debug("Cache warm-up load failed: {}", e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.warmup.loads.total", total, AtomicInteger::get)
+                .description("Loads queued by the startup cache warm-up")
+                .register(registry);
+        Gauge.builder("cache.warmup.loads.completed", completed, AtomicInteger::get)
+                .description("Warm-up loads finished")
+                .register(registry);
+        Gauge.builder("cache.warmup.loads.failed", failed, AtomicInteger::get)
+                .description("Warm-up loads that threw")
+                .register(registry);
+        TimeGauge.builder("cache.warmup.duration", this, TimeUnit.MILLISECONDS,
+                        warmup -> warmup.status().elapsedMillis())
+                .description("Time spent warming up so far, or in total once finished")
+                .register(registry);
+    }
+
+    public CacheWarmupDto status() {
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        long elapsed = startedAt != 0 ? TimeUnit.NANOSECONDS.toMillis(end - startedAt) : 0;
+        return new CacheWarmupDto(state, total.get(), completed.get(), failed.get(), elapsed);
+    }
+}
@@ -1,28 +1,88 @@
 package com.workflow.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.CacheManager;
+import com.workflow.cache.CacheInvalidationPublisher;
+import com.workflow.cache.CoalescingCaffeineCache;
+import com.workflow.cache.TwoTierCacheManager;
+import com.workflow.cache.TwoTierCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Node-local (L1) caches. {@code userDetails} is only ever cached here; {@code workflows} and {@code roles}
+ * are served through {@link TwoTierCacheManager}, with Redis as L2 when it is enabled (see {@link RedisConfig}).
+ */
 @Configuration
 @EnableCaching
 public class CaffeineCacheConfig {
 
     public static final String USER_DETAILS_CACHE = "userDetails";
+    public static final String WORKFLOWS_CACHE = "workflows";
+    public static final String ROLES_CACHE = "roles";
+    /** Published version served for each workflow id; evicted whenever the workflow is edited, published or deleted. */
+    public static final String PUBLISHED_WORKFLOWS_CACHE = "publishedWorkflows";
+    /** Role version and enabled flag per user id, checked against every access token. */
+    public static final String AUTH_STATE_CACHE = "authState";
+    /** Immutable published definitions keyed by version id; never evicted, only bounded in size. */
+    public static final String WORKFLOW_VERSIONS_CACHE = "workflowVersions";
+    /** Caches served through {@link TwoTierCacheManager}; {@code userDetails} holds password hashes and stays local. */
+    public static final Set<String> SHARED_CACHES = Set.of(WORKFLOWS_CACHE, ROLES_CACHE,
+            PUBLISHED_WORKFLOWS_CACHE, WORKFLOW_VERSIONS_CACHE, AUTH_STATE_CACHE);
 
     @Bean("caffeineCacheManager")
-    @Primary
-    public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager manager = new CaffeineCacheManager(USER_DETAILS_CACHE, "roles");
+    public CaffeineCacheManager caffeineCacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager() {
+            // Loads run outside Caffeine's compute lock, so virtual threads blocking in a loader are not pinned
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new CoalescingCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        manager.setCacheNames(List.of(USER_DETAILS_CACHE, ROLES_CACHE, WORKFLOWS_CACHE,
+                PUBLISHED_WORKFLOWS_CACHE, AUTH_STATE_CACHE));
+        // L1 TTL is kept below the Redis TTLs so a lost invalidation message only causes bounded staleness
         manager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterWrite(5, TimeUnit.MINUTES)
-                .maximumSize(10_000));
+                .maximumSize(10_000)
+                .recordStats());
+        manager.registerCustomCache(WORKFLOW_VERSIONS_CACHE, Caffeine.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .maximumSize(1_000)
+                .recordStats()
+                .build());
         return manager;
     }
+
+    /** {@code cache.*} meters for the two-tier caches; Spring Boot meters the Caffeine and Redis tiers itself. */
+    @Bean
+    public TwoTierCacheMetrics.Provider twoTierCacheMeterBinderProvider() {
+        return new TwoTierCacheMetrics.Provider();
+    }
+
+    /** Without Redis the L2 tier is a no-op and there are no peers to notify. */
+    @Configuration
+    @ConditionalOnProperty(name = "spring.data.redis.repositories.enabled", havingValue = "false")
+    static class LocalOnlyCacheConfig {
+
+        @Bean("cacheManager")
+        @Primary
+        public TwoTierCacheManager cacheManager(@Qualifier("caffeineCacheManager") CaffeineCacheManager caffeineCacheManager,
+                                                AppCacheProperties cacheProperties) {
+            TwoTierCacheManager manager = new TwoTierCacheManager(caffeineCacheManager, new NoOpCacheManager(),
+                    CacheInvalidationPublisher.NONE, SHARED_CACHES);
+            manager.setRefreshAhead(cacheProperties.refreshAhead());
+            return manager;
+        }
+    }
 }
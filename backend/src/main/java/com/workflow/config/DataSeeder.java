@@ -3,16 +3,23 @@ package com.workflow.config;
 import com.workflow.model.*;
 import com.workflow.repository.RoleRepository;
 import com.workflow.repository.UserRepository;
+import com.workflow.repository.WorkflowInstanceRepository;
 import com.workflow.repository.WorkflowRepository;
+import com.workflow.service.WorkflowVersionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Set;
 
 @Component
+@Order(1)
 @RequiredArgsConstructor
 @Slf4j
 public class DataSeeder implements CommandLineRunner {
@@ -22,9 +29,13 @@ public class DataSeeder implements CommandLineRunner {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final WorkflowRepository workflowRepository;
+    private final WorkflowInstanceRepository instanceRepository;
     private final PasswordEncoder passwordEncoder;
+    private final WorkflowVersionService versionService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
+    @Transactional
     public void run(String... args) {
         if (roleRepository.count() == 0) {
             Role adminRole = roleRepository.save(
@@ -69,6 +80,45 @@ public class DataSeeder implements CommandLineRunner {
         });
 
         seedSampleWorkflow();
+        backfillPublishedVersions();
+        dropCurrentStepForeignKey();
+        backfillCurrentStepNames();
+    }
+
+    /** Workflows published before definition versions existed get their first version snapshot. */
+    private void backfillPublishedVersions() {
+        for (Workflow workflow : workflowRepository.findByStatusAndPublishedVersionIsNull(WorkflowStatus.PUBLISHED)) {
+            versionService.publish(workflow);
+            log.info("Created definition version {} for published workflow \"{}\"", workflow.getPublishedVersion(), workflow.getName());
+        }
+    }
+
+    /**
+     * {@code current_step_id} used to reference {@code workflow_steps}; {@code ddl-auto=update} never drops the
+     * foreign key it created then, and it makes deleting a step an instance is on fail. Looked up by column, since
+     * the constraint's name was generated.
+     */
+    public void dropCurrentStepForeignKey() {
+        List<String> constraints = jdbcTemplate.queryForList("""
+                SELECT tc.constraint_name FROM information_schema.table_constraints tc
+                JOIN information_schema.key_column_usage kcu
+                  ON kcu.constraint_schema = tc.constraint_schema AND kcu.constraint_name = tc.constraint_name
+                WHERE tc.constraint_type = 'FOREIGN KEY'
+                  AND LOWER(tc.table_name) = 'workflow_instances'
+                  AND LOWER(kcu.column_name) = 'current_step_id'
+                """, String.class);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("ALTER TABLE workflow_instances DROP CONSTRAINT IF EXISTS \"" + constraint + "\"");
+            log.info("Dropped foreign key {} from workflow_instances.current_step_id", constraint);
+        }
+    }
+
+    /** Instances created before the step name was kept on the instance show it in task lists and exports. */
+    private void backfillCurrentStepNames() {
+        int updated = instanceRepository.backfillCurrentStepNames();
+        if (updated > 0) {
+            log.info("Filled in the current step name of {} workflow instances", updated);
+        }
     }
 
     private void seedSampleWorkflow() {
@@ -130,6 +180,7 @@ public class DataSeeder implements CommandLineRunner {
         workflow = workflowRepository.save(workflow);
 
         workflow.setStatus(WorkflowStatus.PUBLISHED);
+        versionService.publish(workflow);
         workflowRepository.save(workflow);
 
         log.info("Seeded sample workflow: \"{}\" (2 steps, 3 form fields, 2 business rules). Publish and test from My Tasks.", SAMPLE_WORKFLOW_NAME);
@@ -0,0 +1,36 @@
+package com.workflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param pinningMonitor              log where virtual threads get pinned to their carrier (JFR
+ *                                    {@code jdk.VirtualThreadPinned})
+ * @param pinningThreshold            shortest pin worth reporting
+ * @param sqlStatistics               count the SQL statements and rows of each request (see {@code SqlStatistics})
+ * @param sqlStatisticsHeader         return the counts in {@code X-SQL-Statements} and {@code X-SQL-Rows}
+ * @param sqlStatementWarnThreshold   log a warning for requests running more statements than this
+ * @param sqlRowWarnThreshold         log a warning for requests reading more rows than this
+ */
+@ConfigurationProperties(prefix = "app.diagnostics")
+public record DiagnosticsProperties(
+        boolean pinningMonitor,
+        Duration pinningThreshold,
+        boolean sqlStatistics,
+        boolean sqlStatisticsHeader,
+        int sqlStatementWarnThreshold,
+        int sqlRowWarnThreshold
+) {
+    public DiagnosticsProperties {
+        if (pinningThreshold == null) {
+            pinningThreshold = Duration.ofMillis(20);
+        }
+        if (sqlStatementWarnThreshold <= 0) {
+            sqlStatementWarnThreshold = 20;
+        }
+        if (sqlRowWarnThreshold <= 0) {
+            sqlRowWarnThreshold = 5000;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.workflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Server-Sent Events streams of task changes.
+ *
+ * @param timeout           lifetime of one stream; the browser reconnects afterwards
+ * @param heartbeat         interval of keep-alive comments, which also detect clients that went away
+ * @param maxStreamsPerUser open streams (tabs) per user; opening one more closes the oldest
+ */
+@ConfigurationProperties(prefix = "app.events")
+public record EventStreamProperties(
+        Duration timeout,
+        Duration heartbeat,
+        int maxStreamsPerUser
+) {
+    public EventStreamProperties {
+        if (timeout == null) {
+            timeout = Duration.ofMinutes(30);
+        }
+        if (heartbeat == null) {
+            heartbeat = Duration.ofSeconds(25);
+        }
+        if (maxStreamsPerUser <= 0) {
+            maxStreamsPerUser = 10;
+        }
+    }
+}
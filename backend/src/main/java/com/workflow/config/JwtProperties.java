@@ -2,9 +2,51 @@ package com.workflow.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
+/**
+ * @param verifiedCacheSize maximum number of verified tokens whose claims are kept (by token hash) until they expire
+ * @param rotation          refresh token rotation and revocation, see {@link Rotation}
+ */
 @ConfigurationProperties(prefix = "app.jwt")
 public record JwtProperties(
         String secret,
         long accessExpirationMs,
-        long refreshExpirationMs
-) {}
+        long refreshExpirationMs,
+        int verifiedCacheSize,
+        Rotation rotation
+) {
+    public JwtProperties {
+        if (verifiedCacheSize <= 0) {
+            verifiedCacheSize = 10_000;
+        }
+        if (rotation == null) {
+            rotation = new Rotation(null, 0, 0, null);
+        }
+    }
+
+    /**
+     * @param reuseGrace          how long the token replaced by a rotation is still accepted (concurrent refreshes
+     *                            from several tabs); any later use of it revokes the session
+     * @param expectedRevocations revoked sessions the in-memory filter is sized for within one refresh lifetime
+     * @param falsePositiveRate   filter false-positive rate at that size; a false positive costs one cached lookup
+     * @param filterRebuild       interval at which the filter is rebuilt from the database, picking up revocations
+     *                            made on other nodes and dropping expired sessions
+     */
+    public record Rotation(Duration reuseGrace, int expectedRevocations, double falsePositiveRate, Duration filterRebuild) {
+        public Rotation {
+            if (reuseGrace == null) {
+                reuseGrace = Duration.ofSeconds(10);
+            }
+            if (expectedRevocations <= 0) {
+                expectedRevocations = 1_000_000;
+            }
+            if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+                falsePositiveRate = 0.01;
+            }
+            if (filterRebuild == null) {
+                filterRebuild = Duration.ofMinutes(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.workflow.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, typically inside {@code synchronized} on
+ * Java 21, from an in-process JFR stream (no restart with {@code -Djdk.tracePinnedThreads} needed). Each distinct
+ * stack is logged the first time and then every 1000th occurrence, so a hot spot does not flood the log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.pinning-monitor", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 15;
+
+    private final DiagnosticsProperties properties;
+    private final Map<String, LongAdder> occurrences = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(EVENT).withThreshold(properties.pinningThreshold()).withStackTrace();
+        recording.onEvent(EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Reporting virtual thread pinning longer than {} ms", properties.pinningThreshold().toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String stack = format(event.getStackTrace());
+        LongAdder count = occurrences.computeIfAbsent(stack, s -> new LongAdder());
+        count.increment();
+        long seen = count.sum();
+        if (seen == 1 || seen % 1000 == 0) {
+            log.warn("Virtual thread pinned for {} ms (seen {} times):\n{}", event.getDuration().toMillis(), seen, stack);
+        }
+    }
+
+    private static String format(RecordedStackTrace trace) {
+        if (trace == null) {
+            return "\t(no stack trace)";
+        }
+        return trace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.workflow.config;
+
+import com.workflow.ratelimit.LocalRateLimiter;
+import com.workflow.ratelimit.RateLimiter;
+import com.workflow.ratelimit.RedisRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+@Slf4j
+public class RateLimitConfig {
+
+    /** Shared buckets when {@code app.rate-limit.store=redis} and Redis is configured, node-local otherwise. */
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        LocalRateLimiter local = new LocalRateLimiter(properties.maxBuckets());
+        if (!"redis".equalsIgnoreCase(properties.store())) {
+            return local;
+        }
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (template == null) {
+            log.warn("app.rate-limit.store=redis but Redis is not configured; rate limits apply per node");
+            return local;
+        }
+        return new RedisRateLimiter(template, local);
+    }
+}
@@ -0,0 +1,54 @@
+package com.workflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Per-client request rate limits, checked before authentication.
+ *
+ * @param enabled    turn all limits off, e.g. for load tests
+ * @param store      {@code local} (per node) or {@code redis} (shared by all nodes; falls back to local when Redis fails)
+ * @param maxBuckets clients tracked per rule on each node; the least recently seen are forgotten first
+ * @param rules      evaluated in order, the first rule matching the request applies
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        boolean enabled,
+        String store,
+        int maxBuckets,
+        List<Rule> rules
+) {
+    public RateLimitProperties {
+        if (store == null || store.isBlank()) {
+            store = "local";
+        }
+        if (maxBuckets <= 0) {
+            maxBuckets = 100_000;
+        }
+        if (rules == null) {
+            rules = List.of();
+        }
+    }
+
+    /**
+     * A token bucket: {@code capacity} requests in a burst, refilled at {@code refillPerSecond}.
+     *
+     * @param name            shown in the stats and used in the Redis key
+     * @param method          HTTP method to match, or empty for any
+     * @param path            path pattern, e.g. {@code /api/tasks/*}{@code /submit}
+     * @param key             {@code user} (falls back to the client IP for anonymous requests) or {@code ip}
+     * @param capacity        burst size
+     * @param refillPerSecond sustained rate
+     */
+    public record Rule(String name, String method, String path, String key, int capacity, double refillPerSecond) {
+        public Rule {
+            if (key == null || key.isBlank()) {
+                key = "user";
+            }
+            if (capacity <= 0) {
+                capacity = 1;
+            }
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.workflow.config;
 
+import com.workflow.cache.CacheInvalidationMessage;
+import com.workflow.cache.RedisCacheLoadLock;
+import com.workflow.cache.SmileCacheSerializer;
+import com.workflow.cache.TwoTierCacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
 
 import java.time.Duration;
 
@@ -17,23 +33,97 @@ import java.time.Duration;
 @ConditionalOnProperty(name = "spring.data.redis.repositories.enabled", havingValue = "true", matchIfMissing = true)
 public class RedisConfig {
 
+        private static final Logger log = LoggerFactory.getLogger(RedisConfig.class);
+
+        /** Pub/sub channel carrying {@link CacheInvalidationMessage}s between nodes. */
+        public static final String CACHE_INVALIDATION_CHANNEL = "workflow:cache-invalidation";
+
         @Bean
-        public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+        public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                        RedisSerializer<Object> cacheValueSerializer) {
                 RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                                 .entryTtl(Duration.ofMinutes(15))
                                 .serializeValuesWith(
                                                 RedisSerializationContext.SerializationPair.fromSerializer(
-                                                                new GenericJackson2JsonRedisSerializer()))
+                                                                cacheValueSerializer))
                                 .disableCachingNullValues();
 
                 return RedisCacheManager.builder(connectionFactory)
                                 .cacheDefaults(config)
-                                .withCacheConfiguration("workflows",
-                                                RedisCacheConfiguration.defaultCacheConfig()
-                                                                .entryTtl(Duration.ofMinutes(30)))
-                                .withCacheConfiguration("roles",
-                                                RedisCacheConfiguration.defaultCacheConfig()
-                                                                .entryTtl(Duration.ofHours(1)))
+                                // Hit, miss and put counts for the cache.* meters
+                                .enableStatistics()
+                                .withCacheConfiguration(CaffeineCacheConfig.WORKFLOWS_CACHE,
+                                                config.entryTtl(Duration.ofMinutes(30)))
+                                .withCacheConfiguration(CaffeineCacheConfig.PUBLISHED_WORKFLOWS_CACHE,
+                                                config.entryTtl(Duration.ofMinutes(30)))
+                                .withCacheConfiguration(CaffeineCacheConfig.ROLES_CACHE,
+                                                config.entryTtl(Duration.ofHours(1)))
+                                .withCacheConfiguration(CaffeineCacheConfig.AUTH_STATE_CACHE,
+                                                config.entryTtl(Duration.ofHours(1)))
+                                // Versions are immutable: no TTL, Redis maxmemory policy bounds them
+                                .withCacheConfiguration(CaffeineCacheConfig.WORKFLOW_VERSIONS_CACHE,
+                                                config.entryTtl(Duration.ZERO))
                                 .build();
         }
+
+        /** Value encoding for the Redis tier, selected by {@code app.cache.serializer}. */
+        @Bean
+        public RedisSerializer<Object> cacheValueSerializer(AppCacheProperties cacheProperties) {
+                if ("json".equalsIgnoreCase(cacheProperties.serializer())) {
+                        return new GenericJackson2JsonRedisSerializer();
+                }
+                return new SmileCacheSerializer(cacheProperties.compressionThreshold());
+        }
+
+        /**
+         * Caffeine L1 in front of Redis L2; evictions are broadcast so every node's L1 stays coherent and
+         * loads of a key missing from Redis are coalesced across nodes.
+         */
+        @Bean("cacheManager")
+        @Primary
+        public TwoTierCacheManager cacheManager(@Qualifier("caffeineCacheManager") CaffeineCacheManager caffeineCacheManager,
+                        RedisCacheManager redisCacheManager,
+                        RedisTemplate<String, CacheInvalidationMessage> cacheInvalidationTemplate,
+                        StringRedisTemplate stringRedisTemplate,
+                        AppCacheProperties cacheProperties) {
+                TwoTierCacheManager manager = new TwoTierCacheManager(caffeineCacheManager, redisCacheManager,
+                                message -> cacheInvalidationTemplate.convertAndSend(CACHE_INVALIDATION_CHANNEL, message),
+                                CaffeineCacheConfig.SHARED_CACHES);
+                // One node loads a key missing from Redis; the others wait for it instead of hitting the database
+                manager.setLoadLock(new RedisCacheLoadLock(stringRedisTemplate));
+                manager.setLoadLockTimeout(cacheProperties.loadLockTimeout());
+                manager.setRefreshAhead(cacheProperties.refreshAhead());
+                return manager;
+        }
+
+        /**
+         * Invalidations as plain JSON bound to {@link CacheInvalidationMessage}, without type information: whoever
+         * can publish on the channel gets no say in which classes a node instantiates.
+         */
+        @Bean
+        public RedisTemplate<String, CacheInvalidationMessage> cacheInvalidationTemplate(
+                        RedisConnectionFactory connectionFactory) {
+                RedisTemplate<String, CacheInvalidationMessage> template = new RedisTemplate<>();
+                template.setConnectionFactory(connectionFactory);
+                template.setKeySerializer(RedisSerializer.string());
+                template.setValueSerializer(new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class));
+                return template;
+        }
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                        TwoTierCacheManager cacheManager,
+                        RedisTemplate<String, CacheInvalidationMessage> cacheInvalidationTemplate) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                container.addMessageListener((message, pattern) -> {
+                        try {
+                                cacheManager.onInvalidation((CacheInvalidationMessage) cacheInvalidationTemplate
+                                                .getValueSerializer().deserialize(message.getBody()));
+                        } catch (SerializationException e) {
+                                log.warn("Ignoring malformed cache invalidation: {}", e.getMessage());
+                        }
+                }, new ChannelTopic(CACHE_INVALIDATION_CHANNEL));
+                return container;
+        }
 }
@@ -1,10 +1,18 @@
 package com.workflow.config;
 
+import com.workflow.ratelimit.RateLimitFilter;
+import com.workflow.security.BoundedPasswordEncoder;
 import com.workflow.security.JwtAuthFilter;
+import com.workflow.security.PermissionAuthorizationManager;
+import com.workflow.security.PermissionRegistry;
+import com.workflow.security.PermissionResolver;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -12,9 +20,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -29,8 +36,11 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final CorsProperties corsProperties;
     private final AppSecurityProperties securityProperties;
+    private final PermissionResolver permissionResolver;
+    private final PermissionRegistry permissionRegistry;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -45,17 +55,29 @@ public class SecurityConfig {
                                 .maxAgeInSeconds(31536000))
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // 401 (not 403) for missing, expired or outdated tokens, so the client refreshes its access token
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(requests -> {
                     var reg = requests
                             .requestMatchers("/api/auth/**").permitAll()
-                            .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
+                            // Error dispatches keep the original status (e.g. 403) instead of hitting the entry point
+                            .requestMatchers("/error").permitAll()
+                            // Completion of an already authorized async request (SSE stream timeout or close)
+                            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                            .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                            // Served on the management port only (management.server.port), which is not published
+                            .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll();
                     if (securityProperties.h2ConsoleEnabled()) {
                         reg = reg.requestMatchers("/h2-console/**").permitAll();
                     }
-                    reg.requestMatchers("/api/admin/**").hasRole("ADMIN")
+                    reg.requestMatchers("/api/admin/**")
+                            .access(PermissionAuthorizationManager.hasRole(permissionResolver, permissionRegistry, "ADMIN"))
                             .anyRequest().authenticated();
                 })
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Rejects over-limit clients before their token is even looked at
+                .addFilterBefore(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
@@ -75,8 +97,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(securityProperties.passwordHashing());
     }
 
     @Bean
@@ -0,0 +1,42 @@
+package com.workflow.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary encodings of the same DTOs for service-to-service clients, negotiated through {@code Accept} and
+ * {@code Content-Type}: {@code application/cbor} and {@code application/x-jackson-smile}. They are not in
+ * {@code server.compression}'s types, so neither side pays for gzip.
+ * <p>
+ * Spring MVC registers both after the JSON converter when their Jackson modules are on the classpath, so a client
+ * that accepts anything (browsers, the frontend) still gets JSON. Their default mappers ignore {@code spring.jackson.*}
+ * though; they are replaced in place by ones from Boot's builder, which share the JSON mapper's modules and settings
+ * (its {@code cbor()} and {@code smile()} are static and would start from a blank builder, hence the factories).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> switch (converter) {
+            case MappingJackson2CborHttpMessageConverter cbor -> new MappingJackson2CborHttpMessageConverter(
+                    objectMapperBuilder.getObject().factory(new CBORFactory()).build());
+            case MappingJackson2SmileHttpMessageConverter smile -> new MappingJackson2SmileHttpMessageConverter(
+                    objectMapperBuilder.getObject().factory(new SmileFactory()).build());
+            default -> converter;
+        });
+    }
+}
@@ -40,7 +40,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletResponse response) {
+    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        String token = getRefreshTokenFromCookie(request);
+        if (token != null && !token.isBlank()) {
+            authService.logout(token);
+        }
         clearRefreshTokenCookie(response);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,31 @@
+package com.workflow.controller;
+
+import com.workflow.batch.BatchDispatcher;
+import com.workflow.dto.BatchRequest;
+import com.workflow.dto.BatchResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Several API calls in one round trip, e.g. the reads behind a dashboard or the saves of the workflow designer.
+ * The batch answers 200 whenever it was accepted; each call's own status, headers and body are in its result.
+ */
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    @PostMapping
+    public BatchResponse batch(@Valid @RequestBody BatchRequest batch, HttpServletRequest request,
+                               HttpServletResponse response) {
+        return new BatchResponse(batchDispatcher.dispatch(batch.requests(), request, response));
+    }
+}
@@ -0,0 +1,37 @@
+package com.workflow.controller;
+
+import com.workflow.cache.TwoTierCacheManager;
+import com.workflow.config.CacheWarmup;
+import com.workflow.dto.CacheStatsDto;
+import com.workflow.dto.CacheWarmupDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Per-tier hit/miss and invalidation counters of the shared (two-tier) caches, and startup warm-up progress.
+ */
+@RestController
+@RequestMapping("/api/admin/caches")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final TwoTierCacheManager cacheManager;
+    private final CacheWarmup cacheWarmup;
+
+    @GetMapping
+    public ResponseEntity<List<CacheStatsDto>> getStats() {
+        return ResponseEntity.ok(cacheManager.stats());
+    }
+
+    @GetMapping("/warmup")
+    public ResponseEntity<CacheWarmupDto> getWarmup() {
+        return ResponseEntity.ok(cacheWarmup.status());
+    }
+}
@@ -0,0 +1,27 @@
+package com.workflow.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Responses carrying an ETag taken from a cached content hash. Spring answers a matching
+ * {@code If-None-Match} with 304 before writing the body; {@code no-cache} keeps the browser revalidating
+ * instead of Spring Security's default {@code no-store}.
+ * <p>
+ * The tag is strong: the hash pins the exact content, and {@code Vary: Accept} keeps the JSON, CBOR and
+ * Smile representations apart in any cache. Tomcat does not gzip a response carrying a strong ETag.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> withETag(String contentHash, T body) {
+        return ResponseEntity.ok()
+                .eTag("\"" + contentHash + "\"")
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+}
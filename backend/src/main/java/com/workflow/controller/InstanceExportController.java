@@ -0,0 +1,45 @@
+package com.workflow.controller;
+
+import com.workflow.model.InstanceStatus;
+import com.workflow.service.InstanceExportWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Bulk export of workflow instances for reporting, instead of paging through {@code /api/tasks}.
+ * Send {@code Accept-Encoding: gzip} to have the stream compressed on the fly.
+ */
+@RestController
+@RequestMapping("/api/admin/instances")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class InstanceExportController {
+
+    private final InstanceExportWriter exportWriter;
+
+    /**
+     * @param format   {@code ndjson} (default) or {@code csv}
+     * @param formData include each instance's submitted form data
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean formData,
+            @RequestParam(required = false) Long workflowId,
+            @RequestParam(required = false) InstanceStatus status) {
+        InstanceExportWriter.Format selected = InstanceExportWriter.Format.parse(format);
+        return ResponseEntity.ok()
+                .contentType(selected.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("instances." + selected.extension()).build().toString())
+                .body(out -> exportWriter.write(selected, formData, workflowId, status, out));
+    }
+}
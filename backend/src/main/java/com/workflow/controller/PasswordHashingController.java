@@ -0,0 +1,34 @@
+package com.workflow.controller;
+
+import com.workflow.dto.PasswordHashingStatsDto;
+import com.workflow.dto.PasswordStrengthRequest;
+import com.workflow.security.BoundedPasswordEncoder;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Hash latency and queue depth of the password hashing pool, and the BCrypt work factor.
+ * Raising the work factor applies to new hashes; existing users are rehashed on their next login.
+ */
+@RestController
+@RequestMapping("/api/admin/password-hashing")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class PasswordHashingController {
+
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    @GetMapping
+    public ResponseEntity<PasswordHashingStatsDto> getStats() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
+    @PutMapping("/strength")
+    public ResponseEntity<PasswordHashingStatsDto> setStrength(@Valid @RequestBody PasswordStrengthRequest request) {
+        passwordEncoder.setStrength(request.strength());
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+}
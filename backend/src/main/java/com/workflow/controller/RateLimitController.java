@@ -0,0 +1,29 @@
+package com.workflow.controller;
+
+import com.workflow.dto.RateLimitStatsDto;
+import com.workflow.ratelimit.RateLimitFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Admitted and rejected requests per rate limit rule, and the client buckets each rule holds on this node.
+ */
+@RestController
+@RequestMapping("/api/admin/rate-limits")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class RateLimitController {
+
+    private final RateLimitFilter rateLimitFilter;
+
+    @GetMapping
+    public ResponseEntity<List<RateLimitStatsDto>> getStats() {
+        return ResponseEntity.ok(rateLimitFilter.stats());
+    }
+}
@@ -1,6 +1,7 @@
 package com.workflow.controller;
 
 import com.workflow.dto.RoleDto;
+import com.workflow.dto.RoleListDto;
 import com.workflow.dto.UserDto;
 import com.workflow.service.RoleService;
 import com.workflow.service.UserService;
@@ -26,7 +27,8 @@ public class RoleController {
 
     @GetMapping
     public ResponseEntity<List<RoleDto>> getAll() {
-        return ResponseEntity.ok(roleService.getAllRoles());
+        RoleListDto roles = roleService.getAllRoles();
+        return ConditionalResponses.withETag(roles.contentHash(), roles.roles());
     }
 
     @GetMapping("/{id}")
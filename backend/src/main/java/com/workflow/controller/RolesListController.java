@@ -1,6 +1,7 @@
 package com.workflow.controller;
 
 import com.workflow.dto.RoleDto;
+import com.workflow.dto.RoleListDto;
 import com.workflow.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +24,7 @@ public class RolesListController {
 
     @GetMapping("/roles")
     public ResponseEntity<List<RoleDto>> listRoles() {
-        return ResponseEntity.ok(roleService.getAllRolesUncached());
+        RoleListDto roles = roleService.getAllRoles();
+        return ConditionalResponses.withETag(roles.contentHash(), roles.roles());
     }
 }
@@ -1,17 +1,24 @@
 package com.workflow.controller;
 
+import com.workflow.dto.TaskDetailDto;
 import com.workflow.dto.WorkflowDto;
 import com.workflow.dto.WorkflowInstanceDto;
 import com.workflow.dto.WorkflowListDto;
+import com.workflow.dto.WorkflowVersionDto;
+import com.workflow.event.TaskEventBroadcaster;
 import com.workflow.service.TaskService;
+import com.workflow.service.WorkflowFields;
 import com.workflow.service.WorkflowService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -22,15 +29,20 @@ public class TaskController {
 
     private final TaskService taskService;
     private final WorkflowService workflowService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
 
     @GetMapping("/workflows")
     public ResponseEntity<Page<WorkflowListDto>> getPublishedWorkflows(@PageableDefault(size = 20) Pageable pageable) {
         return ResponseEntity.ok(workflowService.getPublishedWorkflows(pageable));
     }
 
+    /** @param fields collections to include (see {@link WorkflowFields}); all when omitted */
     @GetMapping("/workflows/{workflowId}")
-    public ResponseEntity<WorkflowDto> getPublishedWorkflow(@PathVariable Long workflowId) {
-        return ResponseEntity.ok(workflowService.getPublishedWorkflow(workflowId));
+    public ResponseEntity<WorkflowDto> getPublishedWorkflow(
+            @PathVariable Long workflowId, @RequestParam(required = false) String fields) {
+        WorkflowFields selected = WorkflowFields.parse(fields);
+        WorkflowVersionDto version = workflowService.getPublishedWorkflow(workflowId);
+        return ConditionalResponses.withETag(selected.tagOf(version.contentHash()), selected.apply(version.definition()));
     }
 
     @PostMapping("/start/{workflowId}")
@@ -44,11 +56,34 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getMyTasks(auth.getName(), pageable));
     }
 
+    /**
+     * Live task-created, task-advanced and task-cancelled events for the tasks the caller is assigned to or started.
+     * Tells a fronting nginx not to buffer the stream, which would hold events back until its buffer filled.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(Authentication auth, HttpServletResponse response) {
+        response.setHeader("X-Accel-Buffering", "no");
+        return taskEventBroadcaster.subscribe(auth.getName());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<WorkflowInstanceDto> getTask(@PathVariable Long id, Authentication auth) {
         return ResponseEntity.ok(taskService.getTaskById(id, auth.getName()));
     }
 
+    /** Task, definition and the caller's permissions in one round trip, for the task screen. */
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<TaskDetailDto> getTaskDetail(
+            @PathVariable Long id, @RequestParam(required = false) String fields, Authentication auth) {
+        return ResponseEntity.ok(taskService.getTaskDetail(id, auth.getName(), WorkflowFields.parse(fields)));
+    }
+
+    @GetMapping("/{id}/definition")
+    public ResponseEntity<WorkflowDto> getTaskDefinition(
+            @PathVariable Long id, @RequestParam(required = false) String fields, Authentication auth) {
+        return ResponseEntity.ok(taskService.getTaskDefinition(id, auth.getName(), WorkflowFields.parse(fields)));
+    }
+
     @PostMapping("/{id}/submit")
     public ResponseEntity<WorkflowInstanceDto> submitStep(
             @PathVariable Long id, @RequestBody Map<String, Object> formData, Authentication auth) {
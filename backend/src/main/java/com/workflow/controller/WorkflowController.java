@@ -1,17 +1,24 @@
 package com.workflow.controller;
 
+import com.workflow.dto.WorkflowDefinitionDto;
 import com.workflow.dto.WorkflowDto;
 import com.workflow.dto.WorkflowListDto;
+import com.workflow.service.WorkflowDefinitionWriter;
+import com.workflow.service.WorkflowFields;
 import com.workflow.service.WorkflowService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin/workflows")
@@ -20,15 +27,45 @@ import org.springframework.web.bind.annotation.*;
 public class WorkflowController {
 
     private final WorkflowService workflowService;
+    private final WorkflowDefinitionWriter definitionWriter;
 
     @GetMapping
     public ResponseEntity<Page<WorkflowListDto>> getAll(@PageableDefault(size = 20) Pageable pageable) {
         return ResponseEntity.ok(workflowService.getAllWorkflows(pageable));
     }
 
+    /** @param fields collections to include (see {@link WorkflowFields}); all when omitted */
     @GetMapping("/{id}")
-    public ResponseEntity<WorkflowDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(workflowService.getWorkflow(id));
+    public ResponseEntity<WorkflowDto> getById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        WorkflowFields selected = WorkflowFields.parse(fields);
+        WorkflowDefinitionDto workflow = selected.isAll()
+                ? workflowService.getWorkflow(id)
+                : workflowService.getWorkflow(id, selected);
+        return ConditionalResponses.withETag(workflow.contentHash(), workflow.definition());
+    }
+
+    /** Every definition as one JSON array, streamed as it is read (see {@link WorkflowDefinitionWriter}). */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(@RequestParam(required = false) String fields) {
+        WorkflowFields selected = WorkflowFields.parse(fields);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("workflows.json").build().toString())
+                .body(out -> definitionWriter.writeAllDefinitions(selected, out));
+    }
+
+    /**
+     * Same JSON as {@link #getById}, streamed as it is read instead of assembled and cached first,
+     * for definitions too large to hold in memory per request.
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        WorkflowFields selected = WorkflowFields.parse(fields);
+        definitionWriter.ensureExists(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> definitionWriter.writeDefinition(id, selected, out));
     }
 
     @PostMapping
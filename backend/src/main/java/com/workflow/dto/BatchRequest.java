@@ -0,0 +1,25 @@
+package com.workflow.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import java.util.Map;
+
+/** API calls to run in one round trip; see {@code POST /api/batch}. */
+public record BatchRequest(
+    @NotEmpty List<@Valid Operation> requests
+) {
+    /**
+     * @param path    path and query string, e.g. {@code /api/tasks?page=0&size=20}
+     * @param headers extra request headers, e.g. {@code If-None-Match}
+     * @param body    JSON request body, if any
+     */
+    public record Operation(
+        @NotBlank String method,
+        @NotBlank String path,
+        Map<String, String> headers,
+        JsonNode body
+    ) {}
+}
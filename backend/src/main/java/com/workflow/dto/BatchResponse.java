@@ -0,0 +1,18 @@
+package com.workflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+import java.util.Map;
+
+/** One result per batched call, in request order. */
+public record BatchResponse(
+    List<Result> responses
+) {
+    /** @param body the JSON response body (a problem detail for errors); left out when there is none */
+    public record Result(
+        int status,
+        Map<String, String> headers,
+        @JsonInclude(JsonInclude.Include.NON_NULL) JsonNode body
+    ) {}
+}
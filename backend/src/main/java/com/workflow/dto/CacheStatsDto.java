@@ -0,0 +1,13 @@
+package com.workflow.dto;
+
+public record CacheStatsDto(
+    String name,
+    long l1Hits,
+    long l2Hits,
+    long misses,
+    long l1Size,
+    long invalidationsSent,
+    long invalidationsReceived,
+    long refreshes,
+    long lockWaits
+) {}
@@ -0,0 +1,9 @@
+package com.workflow.dto;
+
+public record CacheWarmupDto(
+    String state,
+    int total,
+    int completed,
+    int failed,
+    long elapsedMillis
+) {}
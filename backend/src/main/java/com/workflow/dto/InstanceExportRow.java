@@ -0,0 +1,20 @@
+package com.workflow.dto;
+
+import com.workflow.model.InstanceStatus;
+
+import java.time.LocalDateTime;
+
+/** One workflow instance as read by the export cursor: scalar columns only, so no entity is ever managed. */
+public record InstanceExportRow(
+    Long id,
+    Long workflowId,
+    String workflowName,
+    Long currentStepId,
+    String currentStepName,
+    String assigneeUsername,
+    String initiatedByUsername,
+    InstanceStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime completedAt,
+    String formData
+) {}
@@ -0,0 +1,13 @@
+package com.workflow.dto;
+
+public record PasswordHashingStatsDto(
+    int strength,
+    int threads,
+    int queueCapacity,
+    int queueDepth,
+    int active,
+    long completed,
+    long rejected,
+    double meanMillis,
+    double maxMillis
+) {}
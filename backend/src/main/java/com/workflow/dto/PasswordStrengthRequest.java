@@ -0,0 +1,8 @@
+package com.workflow.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record PasswordStrengthRequest(
+    @Min(4) @Max(31) int strength
+) {}
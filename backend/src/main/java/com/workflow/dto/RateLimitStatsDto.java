@@ -0,0 +1,13 @@
+package com.workflow.dto;
+
+public record RateLimitStatsDto(
+    String rule,
+    String method,
+    String path,
+    String key,
+    int capacity,
+    double refillPerSecond,
+    long allowed,
+    long rejected,
+    long trackedBuckets
+) {}
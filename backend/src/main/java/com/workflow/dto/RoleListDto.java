@@ -0,0 +1,9 @@
+package com.workflow.dto;
+
+import java.util.List;
+
+/** All roles together with the SHA-256 of their JSON form, cached as one entry and used as its ETag. */
+public record RoleListDto(
+    String contentHash,
+    List<RoleDto> roles
+) {}
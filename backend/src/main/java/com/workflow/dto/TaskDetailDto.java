@@ -0,0 +1,8 @@
+package com.workflow.dto;
+
+/** Everything the task screen needs in one response: the task, the definition it runs against and what the caller may do. */
+public record TaskDetailDto(
+    WorkflowInstanceDto task,
+    WorkflowDto definition,
+    TaskPermissionsDto permissions
+) {}
@@ -0,0 +1,6 @@
+package com.workflow.dto;
+
+public record TaskPermissionsDto(
+    boolean canSubmit,
+    boolean canCancel
+) {}
@@ -0,0 +1,8 @@
+package com.workflow.dto;
+
+/** What an access token is checked against: tokens carry the role version they were issued with. */
+public record UserAuthStateDto(
+    Long userId,
+    long roleVersion,
+    boolean enabled
+) {}
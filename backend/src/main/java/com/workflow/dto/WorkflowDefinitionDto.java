@@ -0,0 +1,7 @@
+package com.workflow.dto;
+
+/** A workflow definition together with the SHA-256 of its JSON form, cached as one entry and used as its ETag. */
+public record WorkflowDefinitionDto(
+    String contentHash,
+    WorkflowDto definition
+) {}
@@ -1,5 +1,6 @@
 package com.workflow.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.workflow.model.WorkflowStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -11,7 +12,8 @@ public record WorkflowDto(
     @Size(max = 500) String description,
     WorkflowStatus status,
     String createdByUsername,
-    List<WorkflowStepDto> steps,
-    List<BusinessRuleDto> businessRules,
+    // Collections are null only when left out with fields= (see WorkflowFields)
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<WorkflowStepDto> steps,
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<BusinessRuleDto> businessRules,
     String createdAt
 ) {}
@@ -1,5 +1,6 @@
 package com.workflow.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.workflow.model.StepType;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
@@ -15,6 +16,6 @@ public record WorkflowStepDto(
     Double positionX,
     Double positionY,
     String transitionTargets,
-    List<FormFieldDto> formFields,
-    List<BusinessRuleDto> businessRules
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<FormFieldDto> formFields,
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<BusinessRuleDto> businessRules
 ) {}
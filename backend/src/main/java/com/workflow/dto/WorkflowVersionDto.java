@@ -0,0 +1,9 @@
+package com.workflow.dto;
+
+public record WorkflowVersionDto(
+    Long id,
+    Long workflowId,
+    Integer versionNumber,
+    String contentHash,
+    WorkflowDto definition
+) {}
@@ -0,0 +1,37 @@
+package com.workflow.event;
+
+import com.workflow.dto.WorkflowInstanceDto;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A change to a task, published by {@code TaskService} and delivered to the task's assignee and initiator
+ * once the transaction that made it commits.
+ */
+public record TaskEvent(Type type, WorkflowInstanceDto task) {
+
+    public enum Type {
+        CREATED("task-created"),
+        ADVANCED("task-advanced"),
+        CANCELLED("task-cancelled");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /** SSE {@code event:} field. */
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    public Set<String> recipients() {
+        return Stream.of(task.assigneeUsername(), task.initiatedByUsername())
+                .filter(username -> username != null)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,107 @@
+package com.workflow.event;
+
+import com.workflow.config.EventStreamProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes {@link TaskEvent}s to the open SSE streams of the users they concern.
+ * <p>
+ * Streams are async servlet requests: an idle subscriber holds a socket and an {@link SseEmitter}, but no thread.
+ * Events are sent after the publishing transaction commits, from a virtual thread, so a slow client never delays
+ * the request that changed the task.
+ */
+@Component
+@Slf4j
+public class TaskEventBroadcaster implements DisposableBean {
+
+    private final EventStreamProperties properties;
+    private final Map<String, Deque<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TaskEventBroadcaster(EventStreamProperties properties) {
+        this.properties = properties;
+    }
+
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        // Added inside compute so a concurrent remove() cannot drop the deque between lookup and add
+        Deque<SseEmitter> userStreams = streams.compute(username, (u, existing) -> {
+            Deque<SseEmitter> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(emitter);
+            return deque;
+        });
+        emitter.onCompletion(() -> remove(username, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(username, emitter));
+        while (userStreams.size() > properties.maxStreamsPerUser()) {
+            SseEmitter oldest = userStreams.pollFirst();
+            if (oldest != null) {
+                oldest.complete();
+            }
+        }
+        // Flushes the response headers so the client sees the stream open before the first event
+        send(username, emitter, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        for (String username : event.recipients()) {
+            Deque<SseEmitter> userStreams = streams.get(username);
+            if (userStreams == null || userStreams.isEmpty()) {
+                continue;
+            }
+            SseEmitter.SseEventBuilder message = SseEmitter.event()
+                    .name(event.type().eventName())
+                    .data(event.task(), MediaType.APPLICATION_JSON);
+            sender.execute(() -> userStreams.forEach(emitter -> send(username, emitter, message)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat:25s}", initialDelayString = "${app.events.heartbeat:25s}")
+    public void heartbeat() {
+        streams.forEach((username, userStreams) ->
+                userStreams.forEach(emitter -> send(username, emitter, SseEmitter.event().comment("keep-alive"))));
+    }
+
+    public int openStreams() {
+        return streams.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private void send(String username, SseEmitter emitter, SseEmitter.SseEventBuilder message) {
+        try {
+            emitter.send(message);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the stream already completed); drop it, the browser reconnects if still there
+            remove(username, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(String username, SseEmitter emitter) {
+        streams.computeIfPresent(username, (u, userStreams) -> {
+            userStreams.remove(emitter);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        streams.values().forEach(userStreams -> userStreams.forEach(SseEmitter::complete));
+        sender.shutdownNow();
+    }
+}
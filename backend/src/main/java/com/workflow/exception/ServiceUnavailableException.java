@@ -0,0 +1,18 @@
+package com.workflow.exception;
+
+import java.time.Duration;
+
+/** A resource is saturated; answered with 503 and a {@code Retry-After} header. */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,160 @@
+package com.workflow.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts statements and result set rows towards the thread's {@link SqlStatistics} recording. Connections and
+ * statements are wrapped in JDK proxies; result sets only while a recording is open, so threads that record nothing
+ * (schedulers, streamed exports) read rows without the extra indirection.
+ * <p>
+ * Extends {@link DelegatingDataSource} so Boot still finds the Hikari pool behind it for pool metrics and JMX.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    public CountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /** Proxies compare by identity, like the objects they stand for. */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = CountingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" ->
+                        proxy(Statement.class, new StatementHandler((Statement) result, (Connection) proxy, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+        /** Of a prepared or callable statement; plain statements pass it to each execute call. */
+        private final String sql;
+
+        StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            SqlStatistics.Recording recording = SqlStatistics.current();
+            if (recording != null && name.startsWith("execute")) {
+                recording.countStatement(sql != null ? sql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : "(batch)");
+            }
+            Object result = CountingDataSource.invoke(target, method, args);
+            if (recording != null && result instanceof ResultSet resultSet
+                    && (name.equals("executeQuery") || name.equals("getResultSet"))) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, (Statement) proxy, recording));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final Statement statement;
+        private final SqlStatistics.Recording recording;
+
+        ResultSetHandler(ResultSet target, Statement statement, SqlStatistics.Recording recording) {
+            this.target = target;
+            this.statement = statement;
+            this.recording = recording;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (name.equals("getStatement")) {
+                return statement;
+            }
+            Object result = CountingDataSource.invoke(target, method, args);
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                recording.countRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.workflow.jdbc;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/** Puts a {@link CountingDataSource} in front of every data source, so JPA and plain JDBC use are both counted. */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.sql-statistics", havingValue = "true", matchIfMissing = true)
+public class CountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
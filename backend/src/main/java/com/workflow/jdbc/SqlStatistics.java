@@ -0,0 +1,141 @@
+package com.workflow.jdbc;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SQL statements executed and rows read while a recording is attached to the current thread, counted by
+ * {@link CountingDataSource}. {@code SqlStatisticsFilter} records every HTTP request; tests record around the
+ * call they want to pin down:
+ * <pre>{@code
+ * try (SqlStatistics.Recording sql = SqlStatistics.record()) {
+ *     userService.getAllUsers(PageRequest.of(0, 20));
+ *     assertThat(sql.statements()).as(sql.describe()).isEqualTo(3);
+ * }
+ * }</pre>
+ * Recordings nest: a statement counts towards every recording open on the thread, so a test's recording also sees
+ * what the request's own one counted. Work handed to other threads is only counted when it re-attaches the
+ * caller's recording with {@link #attach}, as {@code FailFastScope} and batched calls do.
+ * <p>
+ * Statements are counted per round trip: a JDBC batch of inserts is one statement. Rows are those read from
+ * result sets, not rows affected by updates.
+ */
+public final class SqlStatistics {
+
+    /** Distinct SQL strings kept per recording for {@link Recording#mostRepeated}; later ones are only counted. */
+    private static final int MAX_DISTINCT_STATEMENTS = 64;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatistics() {
+    }
+
+    /** Starts a recording on this thread, nested in the one already open, if any; close it on the same thread. */
+    public static Recording record() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    /** The innermost recording open on this thread, or {@code null}. */
+    public static Recording current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts this thread's statements towards {@code recording} (taken from {@link #current()} on another thread)
+     * until the returned scope is closed. A {@code null} recording detaches the thread for that time.
+     */
+    public static Scope attach(Recording recording) {
+        Recording previous = CURRENT.get();
+        CURRENT.set(recording);
+        return () -> restore(previous);
+    }
+
+    private static void restore(Recording previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /** Restores the thread's previous recording when closed. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public static final class Recording implements Scope {
+
+        private final Recording parent;
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final Map<String, LongAdder> bySql = new ConcurrentHashMap<>();
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        public long statements() {
+            return statements.sum();
+        }
+
+        public long rows() {
+            return rows.sum();
+        }
+
+        /** Executions per SQL string, for the first {@value #MAX_DISTINCT_STATEMENTS} distinct ones. */
+        public Map<String, Long> bySql() {
+            return bySql.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+        }
+
+        /** The SQL executed most often, or {@code null} before the first statement. */
+        public Map.Entry<String, Long> mostRepeated() {
+            return bySql().entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+
+        /** One line per distinct statement, most executed first. */
+        public String describe() {
+            return bySql().entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                    .map(entry -> "\t" + entry.getValue() + "x " + entry.getKey())
+                    .collect(Collectors.joining("\n"));
+        }
+
+        void countStatement(String sql) {
+            for (Recording recording = this; recording != null; recording = recording.parent) {
+                recording.statements.increment();
+                if (sql != null) {
+                    LongAdder count = recording.bySql.get(sql);
+                    if (count == null && recording.bySql.size() < MAX_DISTINCT_STATEMENTS) {
+                        count = recording.bySql.computeIfAbsent(sql, key -> new LongAdder());
+                    }
+                    if (count != null) {
+                        count.increment();
+                    }
+                }
+            }
+        }
+
+        void countRow() {
+            for (Recording recording = this; recording != null; recording = recording.parent) {
+                recording.rows.increment();
+            }
+        }
+
+        /** Ends the recording; the thread goes back to counting towards the enclosing one. */
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                restore(parent);
+            }
+        }
+    }
+}
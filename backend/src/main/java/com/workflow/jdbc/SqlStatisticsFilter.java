@@ -0,0 +1,97 @@
+package com.workflow.jdbc;
+
+import com.workflow.config.DiagnosticsProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records the SQL of each request, from before authentication to the end of the handler, and logs a warning when
+ * it exceeds {@code app.diagnostics.sql-statement-warn-threshold} statements or
+ * {@code sql-row-warn-threshold} rows, naming the most repeated statement (usually the N+1 culprit).
+ * <p>
+ * With {@code app.diagnostics.sql-statistics-header}, the counts are returned in {@value #STATEMENTS_HEADER} and
+ * {@value #ROWS_HEADER}, as of when the response is committed. Bodies streamed after the handler returned (exports,
+ * event streams) run on other threads and are not counted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.sql-statistics", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+
+    private final DiagnosticsProperties properties;
+
+    public SqlStatisticsFilter(DiagnosticsProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatistics.Recording recording = SqlStatistics.record()) {
+            HttpServletResponse counted = properties.sqlStatisticsHeader()
+                    ? new HeaderWritingResponse(response, recording) : response;
+            try {
+                chain.doFilter(request, counted);
+            } finally {
+                if (counted instanceof HeaderWritingResponse headerWriting && !response.isCommitted()) {
+                    headerWriting.writeHeaders();
+                }
+                warnIfExcessive(request, recording);
+            }
+        }
+    }
+
+    private void warnIfExcessive(HttpServletRequest request, SqlStatistics.Recording recording) {
+        long statements = recording.statements();
+        long rows = recording.rows();
+        if (statements <= properties.sqlStatementWarnThreshold() && rows <= properties.sqlRowWarnThreshold()) {
+            return;
+        }
+        Map.Entry<String, Long> mostRepeated = recording.mostRepeated();
+        log.warn("{} {} ran {} SQL statements reading {} rows; most repeated ({}x): {}",
+                request.getMethod(), request.getRequestURI(), statements, rows,
+                mostRepeated != null ? mostRepeated.getValue() : 0,
+                mostRepeated != null ? mostRepeated.getKey() : "-");
+        if (log.isDebugEnabled()) {
+            log.debug("SQL of {} {}:\n{}", request.getMethod(), request.getRequestURI(), recording.describe());
+        }
+    }
+
+    /** Adds the counts just before the response is committed, the last moment headers can still be set. */
+    private static final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatistics.Recording recording;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatistics.Recording recording) {
+            super(response);
+            this.recording = recording;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(STATEMENTS_HEADER, String.valueOf(recording.statements()));
+            response.setHeader(ROWS_HEADER, String.valueOf(recording.rows()));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.workflow.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tag values of a high-cardinality key (ids) capped at a fixed number: the first {@code limit} distinct values
+ * are kept as they are, later ones all become {@value #OTHER}. Meters are never removed, so admitting values
+ * first come, first served keeps every series that was ever reported stable.
+ */
+final class BoundedTagValues {
+
+    static final String OTHER = "other";
+    static final String NONE = "none";
+
+    private final Set<String> admitted = ConcurrentHashMap.newKeySet();
+    private final int limit;
+
+    BoundedTagValues(int limit) {
+        this.limit = limit;
+    }
+
+    String of(Object value) {
+        if (value == null) {
+            return NONE;
+        }
+        String tag = value.toString();
+        if (admitted.contains(tag)) {
+            return tag;
+        }
+        // May admit a few more than the limit under contention; the bound only has to be approximate
+        if (admitted.size() < limit) {
+            admitted.add(tag);
+            return tag;
+        }
+        return OTHER;
+    }
+}
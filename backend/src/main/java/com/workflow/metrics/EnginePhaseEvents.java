@@ -0,0 +1,152 @@
+package com.workflow.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JDK Flight Recorder events for the phases of submitting a task's step, to see where a slow submit spends its time.
+ * They are off unless a recording enables them, as {@code jfr/workflow.jfc} does; disabled, an event costs an
+ * allocation that escape analysis removes and a flag check. {@code jfr/WorkflowRecordingSummary.java} summarizes a
+ * recording by phase.
+ * <pre>{@code
+ * EnginePhaseEvents.LoadInstance event = new EnginePhaseEvents.LoadInstance();
+ * event.begin();
+ * WorkflowInstance instance = load();
+ * event.finish(instance.getWorkflow().getId(), instance.getCurrentStepId(), 0);
+ * }</pre>
+ */
+public final class EnginePhaseEvents {
+
+    public static final String PREFIX = "com.workflow.";
+
+    private EnginePhaseEvents() {
+    }
+
+    /** Ids that are unknown, or do not apply to the phase, are recorded as 0. */
+    @Category({"Workflow Engine", "Submit Step"})
+    @Enabled(false)
+    @StackTrace(false)
+    public abstract static class Phase extends Event {
+
+        @Label("Workflow Id")
+        long workflowId;
+
+        @Label("Step Id")
+        long stepId;
+
+        @Label("Rule Count")
+        int ruleCount;
+
+        /** Ends the phase and commits it if the recording wants it (enabled and above the threshold). */
+        public void finish(Long workflowId, Long stepId, int ruleCount) {
+            end();
+            if (shouldCommit()) {
+                this.workflowId = workflowId != null ? workflowId : 0;
+                this.stepId = stepId != null ? stepId : 0;
+                this.ruleCount = ruleCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "LoadInstance")
+    @Label("Load Instance")
+    @Description("Reading the task with its assignee and initiator")
+    public static final class LoadInstance extends Phase {
+    }
+
+    @Name(PREFIX + "LoadDefinition")
+    @Label("Load Definition")
+    @Description("Resolving the task's pinned definition, from the cache or the database")
+    public static final class LoadDefinition extends Phase {
+    }
+
+    @Name(PREFIX + "BuildContext")
+    @Label("Build Context")
+    @Description("Preparing the form data as the variables of the step's rule expressions")
+    public static final class BuildContext extends Phase {
+    }
+
+    @Name(PREFIX + "EvaluateRules")
+    @Label("Evaluate Rules")
+    @Description("Evaluating the step's blocking rules against the submitted form")
+    public static final class EvaluateRules extends Phase {
+
+        @Label("Blocked")
+        boolean blocked;
+
+        public void finish(Long workflowId, Long stepId, int ruleCount, boolean blocked) {
+            this.blocked = blocked;
+            finish(workflowId, stepId, ruleCount);
+        }
+    }
+
+    @Name(PREFIX + "SerializeForm")
+    @Label("Serialize Form")
+    @Description("Writing the submitted form data as JSON and appending it to the task's data")
+    public static final class SerializeForm extends Phase {
+    }
+
+    @Name(PREFIX + "AdvanceStep")
+    @Label("Advance Step")
+    @Description("Moving the task to its next step or completing it, saving it and preparing its change event")
+    public static final class AdvanceStep extends Phase {
+    }
+
+    @Name(PREFIX + "Commit")
+    @Label("Commit")
+    @Description("Flushing the persistence context and committing the submit's transaction")
+    public static final class Commit extends Phase {
+
+        @Label("Committed")
+        boolean committed;
+
+        /**
+         * Times the flush and commit of the current transaction, when the event is enabled and a transaction with
+         * synchronization is active.
+         */
+        public static void onCompletion(Long workflowId, Long stepId) {
+            Commit event = new Commit();
+            if (!event.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean begun;
+
+                @Override
+                public int getOrder() {
+                    // First, so the commit's after-commit work (e.g. delivering task events) is not included
+                    return HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    event.begin();
+                    begun = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    event.committed = true;
+                    event.finish(workflowId, stepId, 0);
+                    begun = false;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // Still begun only if committing failed; a rollback before it flushed nothing
+                    if (begun) {
+                        event.finish(workflowId, stepId, 0);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.workflow.metrics;
+
+import com.workflow.config.AppMetricsProperties;
+import com.workflow.dto.WorkflowStepDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the workflow engine's hot paths. Ids used as tag values (workflows, step positions, rules) are
+ * bounded by {@link AppMetricsProperties}; see {@link BoundedTagValues}.
+ * <ul>
+ *   <li>{@value #TASK_START}, {@value #TASK_SUBMIT}: timers per {@code workflow} and {@code outcome}
+ *       ({@code committed} or {@code rolled_back}, e.g. a blocking rule), measured until the transaction
+ *       completes so the commit is included</li>
+ *   <li>{@value #TRANSITIONS}: committed moves of a task per {@code workflow} and {@code step} entered
+ *       (its position in the definition, or {@code completed} past the last one)</li>
+ *   <li>{@value #RULE_EVALUATION}: one business rule expression per {@code rule} id and {@code result}</li>
+ *   <li>{@value #DEFINITION_LOAD}: assembling a definition from the database per {@code workflow} and
+ *       {@code view} ({@code full} or {@code partial}, see {@code fields=}); cache hits are not timed</li>
+ * </ul>
+ */
+@Component
+public class WorkflowMetrics {
+
+    public static final String TASK_START = "workflow.task.start";
+    public static final String TASK_SUBMIT = "workflow.task.submit";
+    public static final String TRANSITIONS = "workflow.task.transitions";
+    public static final String RULE_EVALUATION = "workflow.rule.evaluation";
+    public static final String DEFINITION_LOAD = "workflow.definition.load";
+
+    private final MeterRegistry registry;
+    private final BoundedTagValues workflows;
+    private final BoundedTagValues rules;
+    private final int maxTaggedSteps;
+
+    public WorkflowMetrics(MeterRegistry registry, AppMetricsProperties properties) {
+        this.registry = registry;
+        this.workflows = new BoundedTagValues(properties.maxTaggedWorkflows());
+        this.rules = new BoundedTagValues(properties.maxTaggedRules());
+        this.maxTaggedSteps = properties.maxTaggedSteps();
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records {@code sample} as {@code name} once the current transaction has committed or rolled back; without
+     * a transaction, right away.
+     */
+    public void recordOnCompletion(Timer.Sample sample, String name, Long workflowId) {
+        String workflow = workflows.of(workflowId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sample.stop(outcomeTimer(name, workflow, "committed"));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(outcomeTimer(name, workflow, status == STATUS_COMMITTED ? "committed" : "rolled_back"));
+            }
+        });
+    }
+
+    /** Counts a task entering {@code step} ({@code null}: completing) once the current transaction commits. */
+    public void countTransitionOnCommit(Long workflowId, WorkflowStepDto step) {
+        Counter counter = Counter.builder(TRANSITIONS)
+                .description("Tasks moved to a step, by the step's position")
+                .tag("workflow", workflows.of(workflowId))
+                .tag("step", stepTag(step))
+                .register(registry);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    /** @param result {@code true}, {@code false} or {@code error} */
+    public void recordRuleEvaluation(Long ruleId, String result, long nanos) {
+        Timer.builder(RULE_EVALUATION)
+                .description("Evaluation of one business rule condition")
+                .tag("rule", rules.of(ruleId))
+                .tag("result", result)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeDefinitionLoad(Long workflowId, boolean full, Supplier<T> load) {
+        return Timer.builder(DEFINITION_LOAD)
+                .description("Assembly of a workflow definition from the database")
+                .tag("workflow", workflows.of(workflowId))
+                .tag("view", full ? "full" : "partial")
+                .register(registry)
+                .record(load);
+    }
+
+    private Timer outcomeTimer(String name, String workflow, String outcome) {
+        return Timer.builder(name)
+                .description(TASK_START.equals(name) ? "Starting a workflow, including the commit"
+                        : "Submitting a task's current step, including the commit")
+                .tag("workflow", workflow)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private String stepTag(WorkflowStepDto step) {
+        if (step == null) {
+            return "completed";
+        }
+        if (step.stepOrder() == null || step.stepOrder() < 0 || step.stepOrder() >= maxTaggedSteps) {
+            return BoundedTagValues.OTHER;
+        }
+        return step.stepOrder().toString();
+    }
+}
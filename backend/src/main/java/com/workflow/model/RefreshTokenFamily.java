@@ -0,0 +1,53 @@
+package com.workflow.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One login session: the chain of refresh tokens issued from a single sign-in. Only the current token
+ * (and, for a short grace period, the one it replaced) may be exchanged; presenting any older token
+ * means it was copied, and the whole family is revoked.
+ */
+@Entity
+@Table(name = "refresh_token_families", indexes = {
+        @Index(name = "idx_refresh_family_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_family_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshTokenFamily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** {@code jti} of the only refresh token of this family that is currently valid. */
+    @Column(name = "current_token_id", nullable = false, length = 36)
+    private String currentTokenId;
+
+    /** {@code jti} of the token replaced by the last rotation, accepted again within the reuse grace period. */
+    @Column(name = "previous_token_id", length = 36)
+    private String previousTokenId;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+
+    /** Expiry of the current token; expired families are purged. */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Builder.Default
+    private boolean revoked = false;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -2,6 +2,7 @@ package com.workflow.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -39,6 +40,12 @@ public class User {
     @Builder.Default
     private boolean enabled = true;
 
+    /** Bumped whenever the user's roles change; access tokens carrying an older value are rejected. */
+    @Column(name = "role_version", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long roleVersion = 0;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     @Builder.Default
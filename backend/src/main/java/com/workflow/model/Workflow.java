@@ -41,6 +41,10 @@ public class Workflow {
     @JoinColumn(name = "created_by")
     private User createdBy;
 
+    /** Number of the {@link WorkflowVersion} served to users; null until first published. */
+    @Column(name = "published_version")
+    private Integer publishedVersion;
+
     @OneToMany(mappedBy = "workflow", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("stepOrder ASC")
     @Builder.Default
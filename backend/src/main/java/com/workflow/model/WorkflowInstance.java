@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "workflow_instances", indexes = {
         @Index(name = "idx_instance_workflow", columnList = "workflow_id"),
+        @Index(name = "idx_instance_version", columnList = "definition_version_id"),
         @Index(name = "idx_instance_assignee", columnList = "assignee_id"),
         @Index(name = "idx_instance_initiator", columnList = "initiated_by"),
         @Index(name = "idx_instance_status", columnList = "status")
@@ -28,9 +29,17 @@ public class WorkflowInstance {
     @JoinColumn(name = "workflow_id", nullable = false)
     private Workflow workflow;
 
+    /** Definition version this instance was started with; null for instances created before versioning. */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "current_step_id")
-    private WorkflowStep currentStep;
+    @JoinColumn(name = "definition_version_id")
+    private WorkflowVersion definitionVersion;
+
+    /** Step id within the pinned definition (not a foreign key: live steps may be edited or removed). */
+    @Column(name = "current_step_id")
+    private Long currentStepId;
+
+    @Column(name = "current_step_name", length = 150)
+    private String currentStepName;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignee_id")
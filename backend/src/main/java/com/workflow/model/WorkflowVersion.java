@@ -0,0 +1,47 @@
+package com.workflow.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of a workflow definition taken at publish time.
+ * Instances pin the version they were started with, so later edits to the live workflow never affect them.
+ */
+@Entity
+@Immutable
+@Table(name = "workflow_versions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"workflow_id", "version_number"}),
+        indexes = @Index(name = "idx_version_workflow", columnList = "workflow_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkflowVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "workflow_id", nullable = false)
+    private Workflow workflow;
+
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+
+    /** SHA-256 (hex) of the definition JSON; identical republishes reuse the existing version. */
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    /** WorkflowDto JSON of the definition as published. */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String definition;
+
+    @CreationTimestamp
+    private LocalDateTime publishedAt;
+}
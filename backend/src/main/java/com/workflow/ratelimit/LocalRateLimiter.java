@@ -0,0 +1,55 @@
+package com.workflow.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local buckets, one {@link AtomicLong} per client holding its theoretical arrival time (GCRA, the
+ * virtual-scheduling form of a token bucket). Admission is a single compare-and-set: no locks, and no
+ * refill bookkeeping since the bucket level is implied by how far that time lies ahead of now.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final int maxBuckets;
+    private final Map<String, Cache<String, AtomicLong>> buckets = new ConcurrentHashMap<>();
+
+    public LocalRateLimiter(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    @Override
+    public long tryAcquire(RateLimitRule rule, String clientKey) {
+        long now = System.nanoTime();
+        AtomicLong arrival = bucketsOf(rule).get(clientKey, key -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, now);
+            long wait = start - now - rule.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + rule.intervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public long trackedBuckets(RateLimitRule rule) {
+        Cache<String, AtomicLong> cache = buckets.get(rule.name());
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    private Cache<String, AtomicLong> bucketsOf(RateLimitRule rule) {
+        return buckets.computeIfAbsent(rule.name(), name -> Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                // Idle for longer than a full refill: the bucket is full again, forgetting it changes nothing
+                .expireAfterAccess(Duration.ofNanos(rule.intervalNanos() + rule.toleranceNanos()).plusSeconds(1))
+                .build());
+    }
+}
@@ -0,0 +1,175 @@
+package com.workflow.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.config.RateLimitProperties;
+import com.workflow.dto.RateLimitStatsDto;
+import com.workflow.security.JwtTokenProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of authentication: the first configured rule matching the request takes a token
+ * from the client's bucket, and requests finding it empty get 429 with {@code Retry-After} before any further
+ * work (token verification, database, connection pool) is done for them.
+ * <p>
+ * Clients are keyed by user id when the request carries a valid access token (verification is cached and reused
+ * by {@code JwtAuthFilter}), otherwise by the client's address. Behind the frontend's proxy that is the address in
+ * {@code X-Forwarded-For}, which Tomcat's {@code RemoteIpValve} puts in place of the proxy's for requests from a
+ * trusted proxy ({@code server.tomcat.remoteip.internal-proxies}).
+ * <p>
+ * Meters per {@code rule}: {@code ratelimit.requests} by {@code outcome} ({@code allowed}, {@code rejected}) and
+ * {@code ratelimit.buckets}, the clients tracked on this node.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final boolean enabled;
+    private final List<RateLimitRule> rules;
+    private final RateLimiter rateLimiter;
+    private final JwtTokenProvider tokenProvider;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimiter rateLimiter,
+            JwtTokenProvider tokenProvider, ObjectMapper objectMapper) {
+        this.enabled = properties.enabled();
+        this.rules = properties.rules().stream().map(RateLimitRule::new).toList();
+        this.rateLimiter = rateLimiter;
+        this.tokenProvider = tokenProvider;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = admit(request);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        reject(request, response, waitNanos);
+    }
+
+    /**
+     * Takes a token for the request from the bucket of the first matching rule, if any; also used for calls
+     * dispatched without passing this filter (batched ones).
+     *
+     * @return 0 when the request may proceed, otherwise how long until the bucket has a token again
+     */
+    public long admit(HttpServletRequest request) {
+        if (!enabled) {
+            return 0;
+        }
+        RateLimitRule rule = match(request);
+        if (rule == null) {
+            return 0;
+        }
+        long waitNanos = rateLimiter.tryAcquire(rule, clientKey(rule, request));
+        if (waitNanos == 0) {
+            rule.recordAllowed();
+        } else {
+            rule.recordRejected();
+        }
+        return waitNanos;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public List<RateLimitStatsDto> stats() {
+        return rules.stream()
+                .map(rule -> new RateLimitStatsDto(
+                        rule.name(),
+                        rule.method(),
+                        rule.path(),
+                        rule.keyType().name().toLowerCase(),
+                        rule.capacity(),
+                        rule.refillPerSecond(),
+                        rule.allowed(),
+                        rule.rejected(),
+                        rateLimiter.trackedBuckets(rule)))
+                .toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RateLimitRule rule : rules) {
+            FunctionCounter.builder("ratelimit.requests", rule, RateLimitRule::allowed)
+                    .description("Requests checked against a rate limit rule")
+                    .tag("rule", rule.name())
+                    .tag("outcome", "allowed")
+                    .register(registry);
+            FunctionCounter.builder("ratelimit.requests", rule, RateLimitRule::rejected)
+                    .description("Requests checked against a rate limit rule")
+                    .tag("rule", rule.name())
+                    .tag("outcome", "rejected")
+                    .register(registry);
+            Gauge.builder("ratelimit.buckets", rule, rateLimiter::trackedBuckets)
+                    .description("Clients with a bucket on this node")
+                    .tag("rule", rule.name())
+                    .register(registry);
+        }
+    }
+
+    private RateLimitRule match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(request.getMethod(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(RateLimitRule rule, HttpServletRequest request) {
+        if (rule.keyType() == RateLimitRule.KeyType.USER) {
+            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+                Long userId = tokenProvider.parseVerifiedClaims(header.substring(7))
+                        .map(claims -> claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class))
+                        .orElse(null);
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS,
+                "Rate limit exceeded, retry in " + retryAfterSeconds + "s");
+        problem.setInstance(URI.create(request.getRequestURI()));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
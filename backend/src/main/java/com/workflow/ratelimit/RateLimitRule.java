@@ -0,0 +1,100 @@
+package com.workflow.ratelimit;
+
+import com.workflow.config.RateLimitProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A configured {@link RateLimitProperties.Rule} with its pattern parsed and its bucket expressed as GCRA
+ * parameters: one request is worth {@code intervalNanos} of refill, and a client may run up to
+ * {@code toleranceNanos} ahead of the sustained rate, i.e. {@code capacity - 1} requests of burst.
+ */
+public final class RateLimitRule {
+
+    public enum KeyType { USER, IP }
+
+    private final String name;
+    private final String method;
+    private final String path;
+    private final PathPattern pattern;
+    private final KeyType keyType;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitRule(RateLimitProperties.Rule rule) {
+        if (!(rule.refillPerSecond() > 0)) {
+            throw new IllegalArgumentException("Rate limit rule '" + rule.name() + "' needs a positive refill-per-second");
+        }
+        this.name = rule.name();
+        this.method = StringUtils.hasText(rule.method()) ? rule.method().toUpperCase() : null;
+        this.path = rule.path();
+        this.pattern = PathPatternParser.defaultInstance.parse(rule.path());
+        this.keyType = KeyType.valueOf(rule.key().toUpperCase());
+        this.capacity = rule.capacity();
+        this.refillPerSecond = rule.refillPerSecond();
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rule.refillPerSecond());
+        this.toleranceNanos = intervalNanos * (capacity - 1);
+    }
+
+    public boolean matches(String requestMethod, PathContainer requestPath) {
+        return (method == null || method.equals(requestMethod)) && pattern.matches(requestPath);
+    }
+
+    void recordAllowed() {
+        allowed.increment();
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public KeyType keyType() {
+        return keyType;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public double refillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    public long toleranceNanos() {
+        return toleranceNanos;
+    }
+
+    public long allowed() {
+        return allowed.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
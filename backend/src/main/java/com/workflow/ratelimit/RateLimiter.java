@@ -0,0 +1,17 @@
+package com.workflow.ratelimit;
+
+/**
+ * Token buckets keyed by rule and client.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the client's bucket for this rule.
+     *
+     * @return 0 if the request is admitted, otherwise how many nanoseconds until a token is available
+     */
+    long tryAcquire(RateLimitRule rule, String clientKey);
+
+    /** Buckets currently held in memory for the rule on this node. */
+    long trackedBuckets(RateLimitRule rule);
+}
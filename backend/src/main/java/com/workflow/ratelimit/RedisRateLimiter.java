@@ -0,0 +1,73 @@
+package com.workflow.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets shared by all nodes: the same GCRA as {@link LocalRateLimiter}, run atomically in Redis by a script
+ * using the Redis clock, so node clock skew does not matter. One round trip per request.
+ * <p>
+ * Fails over to node-local buckets when Redis is unavailable, so limits stay in force (per node) instead of
+ * either rejecting everything or letting everything through.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final String KEY_PREFIX = "workflow:rate:";
+    /** KEYS[1] bucket; ARGV interval and tolerance in microseconds. Returns 0 or the wait in microseconds. */
+    private static final RedisScript<Long> ACQUIRE = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local start = math.max(tonumber(redis.call('GET', KEYS[1]) or now), now)
+            local wait = start - now - tolerance
+            if wait > 0 then
+              return wait
+            end
+            local arrival = start + interval
+            redis.call('SET', KEYS[1], string.format('%.0f', arrival), 'PX', math.ceil((arrival - now) / 1000) + 1)
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalRateLimiter fallback;
+    private volatile boolean degraded;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, LocalRateLimiter fallback) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public long tryAcquire(RateLimitRule rule, String clientKey) {
+        try {
+            Long waitMicros = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + rule.name() + ":" + clientKey),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(rule.intervalNanos())),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(rule.toleranceNanos())));
+            if (degraded) {
+                degraded = false;
+                log.info("Redis rate limiting recovered");
+            }
+            return waitMicros == null ? 0 : TimeUnit.MICROSECONDS.toNanos(waitMicros);
+        } catch (RuntimeException e) {
+            if (!degraded) {
+                degraded = true;
+                log.warn("Redis rate limiting unavailable, using node-local buckets: {}", e.getMessage());
+            }
+            return fallback.tryAcquire(rule, clientKey);
+        }
+    }
+
+    /** Shared buckets live in Redis and expire there; only fallback buckets are held on this node. */
+    @Override
+    public long trackedBuckets(RateLimitRule rule) {
+        return fallback.trackedBuckets(rule);
+    }
+}
@@ -0,0 +1,43 @@
+package com.workflow.repository;
+
+import com.workflow.model.BusinessRule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BusinessRuleRepository extends JpaRepository<BusinessRule, Long> {
+
+    /** All rules of a workflow (step-level and legacy workflow-level) as flat rows. */
+    @Query("""
+            SELECT r FROM BusinessRule r
+            LEFT JOIN r.step s
+            WHERE r.workflow.id = :workflowId OR s.workflow.id = :workflowId
+            ORDER BY r.ruleOrder ASC, r.id ASC
+            """)
+    List<BusinessRule> findAllByWorkflowId(@Param("workflowId") Long workflowId);
+
+    /** Step-level rules of a workflow through a cursor, grouped by step in step order. */
+    @Query("""
+            SELECT r FROM BusinessRule r
+            JOIN r.step s
+            WHERE s.workflow.id = :workflowId
+            ORDER BY s.stepOrder ASC, s.id ASC, r.ruleOrder ASC, r.id ASC
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BusinessRule> streamStepRulesInStepOrder(@Param("workflowId") Long workflowId);
+
+    /** Legacy workflow-level rules (not attached to a step) through a cursor. */
+    @Query("""
+            SELECT r FROM BusinessRule r
+            WHERE r.workflow.id = :workflowId AND r.step IS NULL
+            ORDER BY r.ruleOrder ASC, r.id ASC
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BusinessRule> streamWorkflowLevelRules(@Param("workflowId") Long workflowId);
+}
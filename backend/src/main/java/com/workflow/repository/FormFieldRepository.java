@@ -1,11 +1,36 @@
 package com.workflow.repository;
 
 import com.workflow.model.FormField;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface FormFieldRepository extends JpaRepository<FormField, Long> {
     List<FormField> findByStepIdOrderByFieldOrderAsc(Long stepId);
 
     void deleteByStepId(Long stepId);
+
+    /** All form fields of a workflow as flat rows (one row per field, no step join fetch). */
+    @Query("""
+            SELECT f FROM FormField f
+            WHERE f.step.workflow.id = :workflowId
+            ORDER BY f.fieldOrder ASC, f.id ASC
+            """)
+    List<FormField> findAllByWorkflowId(@Param("workflowId") Long workflowId);
+
+    /** All form fields of a workflow through a cursor, grouped by step in step order (to merge with the step cursor). */
+    @Query("""
+            SELECT f FROM FormField f
+            JOIN f.step s
+            WHERE s.workflow.id = :workflowId
+            ORDER BY s.stepOrder ASC, s.id ASC, f.fieldOrder ASC, f.id ASC
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<FormField> streamByWorkflowIdInStepOrder(@Param("workflowId") Long workflowId);
 }
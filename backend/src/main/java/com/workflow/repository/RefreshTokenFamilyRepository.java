@@ -0,0 +1,51 @@
+package com.workflow.repository;
+
+import com.workflow.model.RefreshTokenFamily;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, Long> {
+
+    /**
+     * Compare-and-set rotation: succeeds only for the family's current token, or for the token it just
+     * replaced while {@code rotatedAt} is after {@code graceStart} (two tabs refreshing at once).
+     *
+     * @return 1 if rotated, 0 if the token is stale, revoked, expired or unknown
+     */
+    @Modifying
+    @Query("""
+            UPDATE RefreshTokenFamily f
+            SET f.previousTokenId = :presented, f.currentTokenId = :next, f.rotatedAt = :now, f.expiresAt = :expiresAt
+            WHERE f.id = :id AND f.revoked = false AND f.expiresAt > :now
+              AND (f.currentTokenId = :presented OR (f.previousTokenId = :presented AND f.rotatedAt > :graceStart))
+            """)
+    int rotate(@Param("id") Long id,
+               @Param("presented") String presented,
+               @Param("next") String next,
+               @Param("now") LocalDateTime now,
+               @Param("graceStart") LocalDateTime graceStart,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.revoked = true WHERE f.id = :id")
+    int revoke(@Param("id") Long id);
+
+    @Query("SELECT f.revoked FROM RefreshTokenFamily f WHERE f.id = :id")
+    Boolean findRevokedById(@Param("id") Long id);
+
+    /** Revoked families whose tokens could still be presented; streamed to rebuild the revocation filter. */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id FROM RefreshTokenFamily f WHERE f.revoked = true AND f.expiresAt > :now")
+    Stream<Long> streamRevokedIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenFamily f WHERE f.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,12 @@
 package com.workflow.repository;
 
+import com.workflow.dto.UserAuthStateDto;
 import com.workflow.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +17,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.workflow.dto.UserAuthStateDto(u.id, u.roleVersion, u.enabled) FROM User u WHERE u.id = :id")
+    Optional<UserAuthStateDto> findAuthStateById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    @Modifying
+    @Query("UPDATE User u SET u.roleVersion = u.roleVersion + 1 WHERE u.id IN (SELECT m.id FROM User m JOIN m.roles r WHERE r.id = :roleId)")
+    int incrementRoleVersionByRoleId(@Param("roleId") Long roleId);
 }
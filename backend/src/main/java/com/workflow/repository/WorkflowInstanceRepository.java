@@ -1,20 +1,27 @@
 package com.workflow.repository;
 
+import com.workflow.dto.InstanceExportRow;
 import com.workflow.model.InstanceStatus;
 import com.workflow.model.WorkflowInstance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WorkflowInstanceRepository extends JpaRepository<WorkflowInstance, Long> {
     Page<WorkflowInstance> findByAssigneeIdAndStatus(Long assigneeId, InstanceStatus status, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"workflow", "currentStep", "assignee", "initiatedBy"})
+    @EntityGraph(attributePaths = {"workflow", "assignee", "initiatedBy"})
     Page<WorkflowInstance> findByAssigneeId(Long assigneeId, Pageable pageable);
 
     Page<WorkflowInstance> findByInitiatedById(Long userId, Pageable pageable);
@@ -22,10 +29,70 @@ public interface WorkflowInstanceRepository extends JpaRepository<WorkflowInstan
     @Query("""
             SELECT i FROM WorkflowInstance i
             LEFT JOIN FETCH i.workflow
-            LEFT JOIN FETCH i.currentStep
             LEFT JOIN FETCH i.assignee
             LEFT JOIN FETCH i.initiatedBy
             WHERE i.id = :id
             """)
     Optional<WorkflowInstance> findByIdWithAssigneeAndInitiator(@Param("id") Long id);
+
+    /** Just the keys needed to resolve an instance's definition, read from the instance row without joins. */
+    @Query("SELECT i.definitionVersion.id AS versionId, i.workflow.id AS workflowId FROM WorkflowInstance i WHERE i.id = :id")
+    Optional<DefinitionRef> findDefinitionRefById(@Param("id") Long id);
+
+    interface DefinitionRef {
+        Long getVersionId();
+
+        Long getWorkflowId();
+    }
+
+    /** Instances in id order for export, optionally filtered; {@code formData} is left null (not read). */
+    @Query("""
+            SELECT new com.workflow.dto.InstanceExportRow(i.id, w.id, w.name, i.currentStepId, i.currentStepName,
+                   a.username, ini.username, i.status, i.createdAt, i.completedAt, CAST(NULL AS String))
+            FROM WorkflowInstance i
+            JOIN i.workflow w
+            LEFT JOIN i.assignee a
+            LEFT JOIN i.initiatedBy ini
+            WHERE (:workflowId IS NULL OR w.id = :workflowId)
+              AND (:status IS NULL OR i.status = :status)
+            ORDER BY i.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    Stream<InstanceExportRow> streamForExport(@Param("workflowId") Long workflowId,
+                                              @Param("status") InstanceStatus status);
+
+    /** As {@link #streamForExport}, with the submitted form data. */
+    @Query("""
+            SELECT new com.workflow.dto.InstanceExportRow(i.id, w.id, w.name, i.currentStepId, i.currentStepName,
+                   a.username, ini.username, i.status, i.createdAt, i.completedAt, i.formData)
+            FROM WorkflowInstance i
+            JOIN i.workflow w
+            LEFT JOIN i.assignee a
+            LEFT JOIN i.initiatedBy ini
+            WHERE (:workflowId IS NULL OR w.id = :workflowId)
+              AND (:status IS NULL OR i.status = :status)
+            ORDER BY i.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    Stream<InstanceExportRow> streamForExportWithFormData(@Param("workflowId") Long workflowId,
+                                                          @Param("status") InstanceStatus status);
+
+    /** Assignees ordered by their most recently created task, as a proxy for recent activity. */
+    @Query("""
+            SELECT u.username FROM WorkflowInstance i
+            JOIN i.assignee u
+            GROUP BY u.username
+            ORDER BY MAX(i.createdAt) DESC
+            """)
+    List<String> findRecentlyActiveUsernames(Pageable pageable);
+
+    /** Copies the current step's name onto instances created before the instance kept it. */
+    @Modifying
+    @Query("""
+            UPDATE WorkflowInstance i
+            SET i.currentStepName = (SELECT s.name FROM WorkflowStep s WHERE s.id = i.currentStepId)
+            WHERE i.currentStepName IS NULL
+              AND EXISTS (SELECT 1 FROM WorkflowStep s WHERE s.id = i.currentStepId)
+            """)
+    int backfillCurrentStepNames();
 }
@@ -3,29 +3,51 @@ package com.workflow.repository;
 import com.workflow.dto.WorkflowListDto;
 import com.workflow.model.Workflow;
 import com.workflow.model.WorkflowStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
 
+    /**
+     * Workflow header row only; steps, fields and rules are loaded flat by {@code WorkflowDefinitionLoader}. The
+     * creator is read as its username: loading the user would load its (eager) roles with another query.
+     */
     @Query("""
-            SELECT DISTINCT w FROM Workflow w
-            LEFT JOIN FETCH w.steps s
-            LEFT JOIN FETCH s.formFields
-            LEFT JOIN FETCH s.assignedRole
+            SELECT w AS workflow, cb.username AS createdByUsername FROM Workflow w
+            LEFT JOIN w.createdBy cb
             WHERE w.id = :id
             """)
-    Optional<Workflow> findWithStepsById(@Param("id") Long id);
+    Optional<Header> findHeaderById(@Param("id") Long id);
+
+    interface Header {
+        Workflow getWorkflow();
+
+        String getCreatedByUsername();
+    }
+
+    @Query("SELECT w.id FROM Workflow w ORDER BY w.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Long> streamAllIds();
 
     boolean existsByName(String name);
 
     Page<Workflow> findByStatus(WorkflowStatus status, Pageable pageable);
 
+    List<Workflow> findByStatusAndPublishedVersionIsNull(WorkflowStatus status);
+
+    @Query("SELECT w.id FROM Workflow w WHERE w.status = :status ORDER BY w.id")
+    List<Long> findIdsByStatus(@Param("status") WorkflowStatus status);
+
     Page<Workflow> findByCreatedById(Long userId, Pageable pageable);
 
     @Query(value = """
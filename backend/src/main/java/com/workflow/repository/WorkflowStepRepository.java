@@ -1,9 +1,35 @@
 package com.workflow.repository;
 
 import com.workflow.model.WorkflowStep;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface WorkflowStepRepository extends JpaRepository<WorkflowStep, Long> {
     List<WorkflowStep> findByWorkflowIdOrderByStepOrderAsc(Long workflowId);
+
+    /** Steps of a workflow with their (to-one) assigned role; collections are left unloaded. */
+    @Query("""
+            SELECT s FROM WorkflowStep s
+            LEFT JOIN FETCH s.assignedRole
+            WHERE s.workflow.id = :workflowId
+            ORDER BY s.stepOrder ASC, s.id ASC
+            """)
+    List<WorkflowStep> findWithAssignedRoleByWorkflowId(@Param("workflowId") Long workflowId);
+
+    /** Same rows and order as {@link #findWithAssignedRoleByWorkflowId}, read through a cursor. */
+    @Query("""
+            SELECT s FROM WorkflowStep s
+            LEFT JOIN FETCH s.assignedRole
+            WHERE s.workflow.id = :workflowId
+            ORDER BY s.stepOrder ASC, s.id ASC
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<WorkflowStep> streamWithAssignedRoleByWorkflowId(@Param("workflowId") Long workflowId);
 }
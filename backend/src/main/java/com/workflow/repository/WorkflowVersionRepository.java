@@ -0,0 +1,27 @@
+package com.workflow.repository;
+
+import com.workflow.model.WorkflowVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface WorkflowVersionRepository extends JpaRepository<WorkflowVersion, Long> {
+
+    Optional<WorkflowVersion> findTopByWorkflowIdOrderByVersionNumberDesc(Long workflowId);
+
+    /** Id of the version currently served for a published workflow. */
+    @Query("""
+            SELECT v.id FROM WorkflowVersion v JOIN v.workflow w
+            WHERE w.id = :workflowId
+            AND w.status = com.workflow.model.WorkflowStatus.PUBLISHED
+            AND v.versionNumber = w.publishedVersion
+            """)
+    Optional<Long> findPublishedVersionId(@Param("workflowId") Long workflowId);
+
+    @Modifying
+    @Query("DELETE FROM WorkflowVersion v WHERE v.workflow.id = :workflowId")
+    void deleteByWorkflowId(@Param("workflowId") Long workflowId);
+}
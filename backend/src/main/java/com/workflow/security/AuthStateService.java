@@ -0,0 +1,83 @@
+package com.workflow.security;
+
+import com.workflow.config.CaffeineCacheConfig;
+import com.workflow.dto.UserAuthStateDto;
+import com.workflow.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Role version and enabled flag per user, checked against the claims of every access token.
+ * Cached in the shared {@code authState} cache; entries are evicted only after the transaction that
+ * changed a user's roles commits, so a concurrent request cannot re-cache the old version. The node-local
+ * {@code userDetails} entries, whose authorities carry the role names, are evicted in the same hook.
+ */
+@Service
+public class AuthStateService {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final CacheManager caffeineCacheManager;
+
+    public AuthStateService(UserRepository userRepository, CacheManager cacheManager,
+                            @Qualifier("caffeineCacheManager") CacheManager caffeineCacheManager) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.caffeineCacheManager = caffeineCacheManager;
+    }
+
+    /** @return the user's current state, or {@code null} if the user no longer exists */
+    @Cacheable(value = CaffeineCacheConfig.AUTH_STATE_CACHE, key = "#userId", sync = true)
+    @Transactional(readOnly = true)
+    public UserAuthStateDto getAuthState(Long userId) {
+        return userRepository.findAuthStateById(userId).orElse(null);
+    }
+
+    /** Call from the transaction that bumped the user's role version. */
+    public void evictAfterCommit(Long userId, String username) {
+        afterCommit(() -> {
+            evict(cacheManager, CaffeineCacheConfig.AUTH_STATE_CACHE, userId);
+            evict(caffeineCacheManager, CaffeineCacheConfig.USER_DETAILS_CACHE, username);
+        });
+    }
+
+    /** Call from a transaction that bumped the role version of many users (role renamed or deleted). */
+    public void evictAllAfterCommit() {
+        afterCommit(() -> {
+            evict(cacheManager, CaffeineCacheConfig.AUTH_STATE_CACHE, null);
+            evict(caffeineCacheManager, CaffeineCacheConfig.USER_DETAILS_CACHE, null);
+        });
+    }
+
+    /** @param key the entry to evict, or {@code null} to clear the cache */
+    private static void evict(CacheManager manager, String cacheName, Object key) {
+        Cache cache = manager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key != null) {
+            cache.evict(key);
+        } else {
+            cache.clear();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
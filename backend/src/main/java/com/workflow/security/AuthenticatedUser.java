@@ -0,0 +1,15 @@
+package com.workflow.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal built from access token claims; {@link #getName()} is the username, as with {@code UserDetails}.
+ * Carries the user's precomputed {@link PermissionSet} for authorization checks.
+ */
+public record AuthenticatedUser(Long id, String username, PermissionSet permissions) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,181 @@
+package com.workflow.security;
+
+import com.workflow.config.AppSecurityProperties;
+import com.workflow.dto.PasswordHashingStatsDto;
+import com.workflow.exception.BadRequestException;
+import com.workflow.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt on a dedicated, bounded pool instead of the request threads. At most {@code threads} hashes run at once
+ * and at most {@code queueCapacity} wait; anything beyond that fails fast with {@link ServiceUnavailableException}
+ * rather than queueing behind seconds of CPU work.
+ * <p>
+ * The work factor can be changed at runtime, up to {@code maxStrength}. Existing hashes keep verifying (BCrypt stores the cost in the hash),
+ * and {@link #upgradeEncoding} reports weaker ones so the authentication provider rehashes them on the next
+ * successful login.
+ * <p>
+ * Meters: {@code password.hashing} (hash time), {@code password.hashing.rejected}, {@code password.hashing.strength}
+ * and the pool's {@code executor.*} meters ({@code name=passwordHashing}).
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, DisposableBean {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final int maxStrength;
+    private volatile Bcrypt bcrypt;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedPasswordEncoder(AppSecurityProperties.PasswordHashing properties) {
+        this.bcrypt = new Bcrypt(properties.strength());
+        this.queueCapacity = properties.queueCapacity();
+        this.maxStrength = properties.maxStrength();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.threads(), properties.threads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        BCryptPasswordEncoder encoder = bcrypt.encoder();
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        BCryptPasswordEncoder encoder = bcrypt.encoder();
+        return submit(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /** Cheap (parses the cost prefix only), so it runs on the caller's thread. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.encoder().upgradeEncoding(encodedPassword);
+    }
+
+    public int getStrength() {
+        return bcrypt.strength();
+    }
+
+    /** @throws BadRequestException above the configured {@code maxStrength} */
+    public void setStrength(int strength) {
+        if (strength > maxStrength) {
+            throw new BadRequestException("BCrypt strength " + strength + " is above the maximum of " + maxStrength);
+        }
+        int previous = getStrength();
+        bcrypt = new Bcrypt(strength);
+        log.info("BCrypt work factor changed from {} to {}", previous, strength);
+    }
+
+    public PasswordHashingStatsDto stats() {
+        long count = completed.sum();
+        double mean = count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000;
+        return new PasswordHashingStatsDto(
+                getStrength(),
+                executor.getMaximumPoolSize(),
+                queueCapacity,
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                count,
+                rejected.sum(),
+                mean,
+                maxNanos.get() / 1_000_000.0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("password.hashing", this, encoder -> encoder.completed.sum(),
+                        encoder -> encoder.totalNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("BCrypt hashes and checks, excluding time queued")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", this, encoder -> encoder.rejected.sum())
+                .description("Hashes refused because the pool and its queue were full")
+                .register(registry);
+        Gauge.builder("password.hashing.strength", this, BoundedPasswordEncoder::getStrength)
+                .description("BCrypt work factor of new hashes")
+                .register(registry);
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(registry);
+    }
+
+    private <T> T submit(Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(hash));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent sign-ins, please retry", RETRY_AFTER);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing interrupted", RETRY_AFTER);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> hash) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hash.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            completed.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /** BCryptPasswordEncoder does not expose its strength, so it is kept alongside and swapped as one. */
+    private record Bcrypt(int strength, BCryptPasswordEncoder encoder) {
+        Bcrypt(int strength) {
+            this(strength, new BCryptPasswordEncoder(strength));
+        }
+    }
+}
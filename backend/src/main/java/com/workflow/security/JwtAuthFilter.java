@@ -1,11 +1,15 @@
 package com.workflow.security;
 
+import com.workflow.dto.UserAuthStateDto;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,6 +19,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -22,27 +27,69 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final AuthStateService authStateService;
+    private final PermissionResolver permissionResolver;
+    private final RefreshTokenStore refreshTokenStore;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         String token = extractToken(request);
+        Claims claims = StringUtils.hasText(token) ? tokenProvider.parseVerifiedClaims(token).orElse(null) : null;
 
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.getUsernameFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null) {
+            String type = claims.get(JwtTokenProvider.CLAIM_TYPE, String.class);
+            UsernamePasswordAuthenticationToken authentication = null;
+            if (JwtTokenProvider.TYPE_ACCESS.equals(type)) {
+                authentication = authenticationFromClaims(claims);
+            } else if (type == null && tokenProvider.hasAccessTokenLifetime(claims)) {
+                // Issued before tokens carried roles: resolve them through UserDetails until it expires. Untyped
+                // refresh tokens of that time are refused like typed ones
+                UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            }
+            // Refresh tokens are never accepted as bearer tokens
 
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails,
-                    null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (authentication != null) {
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the authentication from the token alone; the only lookup is the user's cached role version,
+     * so tokens issued before a role change (or for a disabled or deleted user) are rejected. Tokens of a
+     * signed-out or revoked session are rejected too, normally without I/O (see {@link RefreshTokenStore}).
+     */
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(Claims claims) {
+        Long userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class);
+        Long roleVersion = claims.get(JwtTokenProvider.CLAIM_ROLE_VERSION, Long.class);
+        if (userId == null || roleVersion == null) {
+            return null;
+        }
+        // Tokens issued before sessions existed carry no session id and expire on their own
+        Long sessionId = claims.get(JwtTokenProvider.CLAIM_SESSION, Long.class);
+        if (sessionId != null && refreshTokenStore.isRevoked(sessionId)) {
+            return null;
+        }
+        UserAuthStateDto state = authStateService.getAuthState(userId);
+        if (state == null || !state.enabled() || state.roleVersion() != roleVersion) {
+            return null;
+        }
+        List<?> claimed = claims.get(JwtTokenProvider.CLAIM_ROLES, List.class);
+        List<String> roles = claimed == null ? List.of() : claimed.stream().map(Object::toString).toList();
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                .toList();
+        PermissionSet permissions = permissionResolver.forRoles(roles);
+        return new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, claims.getSubject(), permissions), null, authorities);
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,67 +1,159 @@
 package com.workflow.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.workflow.config.JwtProperties;
+import com.workflow.model.Role;
+import com.workflow.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    /** {@code access} or {@code refresh}; tokens issued before the claim existed have none. */
+    public static final String CLAIM_TYPE = "typ";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    /** The user's role version at issue time; see {@link AuthStateService}. */
+    public static final String CLAIM_ROLE_VERSION = "rv";
+    /** Refresh token family (login session) the token belongs to; see {@link RefreshTokenStore}. */
+    public static final String CLAIM_SESSION = "sid";
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
     private final SecretKey key;
     private final long accessExpirationMs;
     private final long refreshExpirationMs;
+    /** Immutable and thread-safe, so one instance serves every request. */
+    private final JwtParser parser;
+    /** Claims of tokens that already passed verification, keyed by SHA-256 of the token, until the token expires. */
+    private final Cache<ByteBuffer, Claims> verifiedClaims;
 
     public JwtTokenProvider(JwtProperties jwtProperties) {
         this.key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtProperties.secret()));
         this.accessExpirationMs = jwtProperties.accessExpirationMs();
         this.refreshExpirationMs = jwtProperties.refreshExpirationMs();
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.verifiedCacheSize())
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
-    public String generateAccessToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return buildToken(userDetails.getUsername(), accessExpirationMs);
-    }
-
-    public String generateAccessToken(String username) {
-        return buildToken(username, accessExpirationMs);
+    /** Self-contained access token: the filter authenticates from its claims without loading the user. */
+    public String generateAccessToken(User user, long sessionId) {
+        return tokenBuilder(user.getUsername(), accessExpirationMs)
+                .claim(CLAIM_TYPE, TYPE_ACCESS)
+                .claim(CLAIM_SESSION, sessionId)
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, user.getRoles().stream().map(Role::getName).sorted().toList())
+                .claim(CLAIM_ROLE_VERSION, user.getRoleVersion())
+                .compact();
     }
 
-    public String generateRefreshToken(String username) {
-        return buildToken(username, refreshExpirationMs);
+    /** Single-use: {@code tokenId} becomes the {@code jti} that the next refresh must present. */
+    public String generateRefreshToken(String username, long sessionId, String tokenId) {
+        return tokenBuilder(username, refreshExpirationMs)
+                .id(tokenId)
+                .claim(CLAIM_TYPE, TYPE_REFRESH)
+                .claim(CLAIM_SESSION, sessionId)
+                .compact();
     }
 
-    private String buildToken(String subject, long expirationMs) {
+    private JwtBuilder tokenBuilder(String subject, long expirationMs) {
         Date now = new Date();
         return Jwts.builder()
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(new Date(now.getTime() + expirationMs))
-                .signWith(key)
-                .compact();
+                .signWith(key);
+    }
+
+    /**
+     * Verifies signature and expiry once and returns the claims, or empty if the token is invalid.
+     * Repeated calls with the same token are answered from the verified-claims cache.
+     */
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        ByteBuffer tokenHash = sha256(token);
+        Claims cached = verifiedClaims.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(tokenHash, claims);
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether an untyped token, issued before {@value #CLAIM_TYPE} existed, could have been an access token: access
+     * and refresh tokens were then told apart only by their lifetime, so anything issued for longer than the access
+     * lifetime is a refresh token. Such tokens age out within one access lifetime of the upgrade.
+     */
+    public boolean hasAccessTokenLifetime(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        // Both claims are whole seconds, so the difference can round up by one
+        return issuedAt != null && expiration != null
+                && expiration.getTime() - issuedAt.getTime() <= accessExpirationMs + 1000;
     }
 
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseVerifiedClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     public boolean validateToken(String token) {
+        return parseVerifiedClaims(token).isPresent();
+    }
+
+    private static ByteBuffer sha256(String token) {
         try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Evicts each entry at its token's {@code exp}, so an expired token is always re-verified (and rejected). */
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
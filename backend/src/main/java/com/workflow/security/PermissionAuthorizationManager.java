@@ -0,0 +1,39 @@
+package com.workflow.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/** Request authorization against the caller's {@link PermissionSet}; the required bit is resolved once, up front. */
+public final class PermissionAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final PermissionResolver resolver;
+    private final int bit;
+
+    private PermissionAuthorizationManager(PermissionResolver resolver, int bit) {
+        this.resolver = resolver;
+        this.bit = bit;
+    }
+
+    public static PermissionAuthorizationManager hasRole(PermissionResolver resolver, PermissionRegistry registry, String role) {
+        return new PermissionAuthorizationManager(resolver, registry.roleBit(role));
+    }
+
+    @Override
+    public AuthorizationDecision authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return resolver.of(authentication.get()).has(bit) ? GRANTED : DENIED;
+    }
+
+    /** @deprecated callers use {@link #authorize}; kept because the interface still declares it */
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return authorize(authentication, context);
+    }
+}
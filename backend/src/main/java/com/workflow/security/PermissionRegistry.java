@@ -0,0 +1,38 @@
+package com.workflow.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns every permission and role name a bit index for {@link PermissionSet}s. Names are case-insensitive;
+ * roles are registered as {@code ROLE_<NAME>} so they never collide with a permission of the same name.
+ * <p>
+ * Indexes are append-only and local to this node: bitsets are never persisted or sent to other nodes.
+ */
+@Component
+public class PermissionRegistry {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final ConcurrentMap<String, Integer> bits = new ConcurrentHashMap<>();
+    /** Role bits by the name as callers spell it, so checks skip the upper-casing and prefixing. */
+    private final ConcurrentMap<String, Integer> roleBits = new ConcurrentHashMap<>();
+    private final AtomicInteger nextBit = new AtomicInteger();
+
+    public int permissionBit(String permission) {
+        return bits.computeIfAbsent(permission.toUpperCase(Locale.ROOT), name -> nextBit.getAndIncrement());
+    }
+
+    public int roleBit(String role) {
+        Integer bit = roleBits.get(role);
+        return bit != null ? bit : roleBits.computeIfAbsent(role, name -> permissionBit(ROLE_PREFIX + name));
+    }
+
+    public int size() {
+        return nextBit.get();
+    }
+}
@@ -0,0 +1,135 @@
+package com.workflow.security;
+
+import com.workflow.cache.TwoTierCache;
+import com.workflow.config.CaffeineCacheConfig;
+import com.workflow.dto.RoleDto;
+import com.workflow.dto.RoleListDto;
+import com.workflow.service.RoleService;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Turns role names into precomputed {@link PermissionSet}s (role bits plus the roles' permissions) and answers
+ * {@code hasRole} with a bit test.
+ * <p>
+ * Role definitions come from the cached role list, read only when the {@code roles} cache has been cleared (every
+ * role change clears it, on this node or through a peer's invalidation) since the current snapshot was built, so
+ * a request costs a counter read. The per-role sets and the per-combination sets are rebuilt when the list's
+ * content hash changes. Users share few distinct role combinations, so a combination is resolved once and then
+ * looked up.
+ */
+@Component
+public class PermissionResolver {
+
+    /** Bounds how long a lost peer invalidation can leave a stale snapshot; below the L1 TTL of the role list. */
+    private static final long REVALIDATE_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final PermissionRegistry registry;
+    private final RoleService roleService;
+    /** {@code null} when the roles cache is not two-tier; the snapshot is then only revalidated periodically */
+    private final TwoTierCache rolesCache;
+
+    private volatile Snapshot snapshot = new Snapshot(null, -1, 0, Map.of(), new ConcurrentHashMap<>());
+
+    public PermissionResolver(PermissionRegistry registry, RoleService roleService, CacheManager cacheManager) {
+        this.registry = registry;
+        this.roleService = roleService;
+        this.rolesCache = cacheManager.getCache(CaffeineCacheConfig.ROLES_CACHE) instanceof TwoTierCache cache
+                ? cache : null;
+    }
+
+    /** @param roleNames role names as carried in the access token */
+    public PermissionSet forRoles(Collection<String> roleNames) {
+        Snapshot current = currentSnapshot();
+        String key = String.join(",", roleNames);
+        return current.combinations().computeIfAbsent(key, k -> {
+            PermissionSet set = PermissionSet.EMPTY;
+            for (String role : roleNames) {
+                PermissionSet roleSet = current.roles().get(role.toUpperCase(Locale.ROOT));
+                // A role missing from the list still grants hasRole, just no permissions
+                set = set.or(roleSet != null ? roleSet : PermissionSet.of(registry.roleBit(role)));
+            }
+            return set;
+        });
+    }
+
+    /** Permission set of an authentication, whether built from token claims or from {@code UserDetails}. */
+    public PermissionSet of(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return PermissionSet.EMPTY;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.permissions();
+        }
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(a -> a.startsWith("ROLE_"))
+                .map(a -> a.substring("ROLE_".length()))
+                .sorted()
+                .toList();
+        return forRoles(roles);
+    }
+
+    public boolean hasRole(PermissionSet permissions, String role) {
+        return permissions.has(registry.roleBit(role));
+    }
+
+    public boolean currentUserHasRole(String role) {
+        return hasRole(of(SecurityContextHolder.getContext().getAuthentication()), role);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        long version = rolesVersion();
+        long now = System.nanoTime();
+        if (current.version() == version && now - current.checkedAt() < REVALIDATE_NANOS) {
+            return current;
+        }
+        // Version read before the list: a change landing during the load leaves a stale stamp, not a stale snapshot
+        RoleListDto roles = roleService.getAllRoles();
+        Snapshot rebuilt = roles.contentHash().equals(current.contentHash())
+                ? new Snapshot(current.contentHash(), version, now, current.roles(), current.combinations())
+                : new Snapshot(roles.contentHash(), version, now, byRole(roles), new ConcurrentHashMap<>());
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    private long rolesVersion() {
+        return rolesCache != null ? rolesCache.clears() : 0;
+    }
+
+    private Map<String, PermissionSet> byRole(RoleListDto roles) {
+        Map<String, PermissionSet> byRole = new HashMap<>();
+        for (RoleDto role : roles.roles()) {
+            int[] bits = new int[1 + (role.permissions() != null ? role.permissions().size() : 0)];
+            int i = 0;
+            bits[i++] = registry.roleBit(role.name());
+            if (role.permissions() != null) {
+                for (String permission : role.permissions()) {
+                    bits[i++] = registry.permissionBit(permission);
+                }
+            }
+            byRole.put(role.name().toUpperCase(Locale.ROOT), PermissionSet.of(bits));
+        }
+        return Map.copyOf(byRole);
+    }
+
+    /** @param version {@link TwoTierCache#clears()} of the roles cache when the list was read */
+    private record Snapshot(String contentHash, long version, long checkedAt, Map<String, PermissionSet> roles,
+                            ConcurrentMap<String, PermissionSet> combinations) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.workflow.security;
+
+import java.util.Arrays;
+
+/**
+ * Immutable bitset of a user's roles and effective permissions, indexed by {@link PermissionRegistry}.
+ * Checks are a word lookup and a mask test.
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    public boolean has(int bit) {
+        int word = bit >>> 6;
+        return word < words.length && (words[word] & (1L << bit)) != 0;
+    }
+
+    public PermissionSet or(PermissionSet other) {
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] result = Arrays.copyOf(longer, longer.length);
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return new PermissionSet(result);
+    }
+
+    public static PermissionSet of(int... bits) {
+        if (bits.length == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(Arrays.stream(bits).max().getAsInt() >>> 6) + 1];
+        for (int bit : bits) {
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return new PermissionSet(words);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PermissionSet other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,165 @@
+package com.workflow.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workflow.config.JwtProperties;
+import com.workflow.model.RefreshTokenFamily;
+import com.workflow.repository.RefreshTokenFamilyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Refresh token families (one per sign-in) with single-use rotation and reuse detection.
+ * <p>
+ * A refresh costs one conditional UPDATE and no read: it only matches the family's current token, so a stale or
+ * revoked token simply updates nothing. Only then is the family read to tell reuse (revoke the session) from
+ * an unknown or already revoked one.
+ * <p>
+ * Access tokens carry their family id, and {@link #isRevoked} is checked on every request from an in-memory
+ * Bloom filter of revoked families: the common "not revoked" answer needs no I/O, and the rare positive is
+ * confirmed against the database and cached. The filter is rebuilt periodically, which also picks up
+ * revocations made on other nodes and drops sessions that have expired.
+ */
+@Service
+@Slf4j
+public class RefreshTokenStore {
+
+    public enum Rotation { ROTATED, REUSED, INVALID }
+
+    private final RefreshTokenFamilyRepository repository;
+    private final JwtProperties.Rotation properties;
+    private final long refreshExpirationMs;
+
+    private volatile LongBloomFilter revokedFilter;
+    /** Filter being rebuilt, so revocations committed meanwhile are not lost on swap. */
+    private volatile LongBloomFilter building;
+    /** Database answers for filter positives (true revocations and false positives alike). */
+    private final Cache<Long, Boolean> confirmed;
+
+    public RefreshTokenStore(RefreshTokenFamilyRepository repository, JwtProperties jwtProperties) {
+        this.repository = repository;
+        this.properties = jwtProperties.rotation();
+        this.refreshExpirationMs = jwtProperties.refreshExpirationMs();
+        this.revokedFilter = newFilter();
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(properties.filterRebuild())
+                .build();
+    }
+
+    /** Starts a session for a fresh sign-in; the returned id goes into both tokens. */
+    @Transactional
+    public long startFamily(Long userId, String tokenId) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshTokenFamily family = RefreshTokenFamily.builder()
+                .userId(userId)
+                .currentTokenId(tokenId)
+                .rotatedAt(now)
+                .expiresAt(expiryFrom(now))
+                .build();
+        return repository.save(family).getId();
+    }
+
+    /**
+     * Replaces {@code presentedId} with {@code nextId} as the family's current token. Presenting a token that was
+     * already rotated away (outside the grace period) revokes the whole family.
+     */
+    @Transactional
+    public Rotation rotate(long familyId, String presentedId, String nextId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = repository.rotate(familyId, presentedId, nextId, now,
+                now.minus(properties.reuseGrace()), expiryFrom(now));
+        if (updated == 1) {
+            return Rotation.ROTATED;
+        }
+        RefreshTokenFamily family = repository.findById(familyId).orElse(null);
+        if (family == null || family.isRevoked() || !family.getExpiresAt().isAfter(now)) {
+            return Rotation.INVALID;
+        }
+        log.warn("Refresh token reuse detected for user {} (session {}); revoking the session",
+                family.getUserId(), familyId);
+        revoke(familyId);
+        return Rotation.REUSED;
+    }
+
+    @Transactional
+    public void revoke(long familyId) {
+        repository.revoke(familyId);
+        // Into the filter being built first, then the live one read afterwards: a rebuild swaps the live filter
+        // before it clears building, so one of the two is the filter that ends up live
+        Runnable publish = () -> {
+            LongBloomFilter next = building;
+            if (next != null) {
+                next.put(familyId);
+            }
+            revokedFilter.put(familyId);
+            confirmed.invalidate(familyId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    /** Whether the session was revoked (logout or detected reuse); no I/O unless the filter reports a hit. */
+    public boolean isRevoked(long familyId) {
+        if (!revokedFilter.mightContain(familyId)) {
+            return false;
+        }
+        return confirmed.get(familyId, id -> Boolean.TRUE.equals(repository.findRevokedById(id)));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.jwt.rotation.filter-rebuild:1m}")
+    @Transactional(readOnly = true)
+    public void rebuildFilter() {
+        long start = System.nanoTime();
+        LongBloomFilter next = newFilter();
+        building = next;
+        AtomicLong count = new AtomicLong();
+        try (Stream<Long> ids = repository.streamRevokedIds(LocalDateTime.now())) {
+            ids.forEach(id -> {
+                next.put(id);
+                count.incrementAndGet();
+            });
+            revokedFilter = next;
+        } finally {
+            building = null;
+        }
+        if (count.get() > properties.expectedRevocations()) {
+            log.warn("{} revoked sessions exceed the filter size of {}; raise app.jwt.rotation.expected-revocations",
+                    count.get(), properties.expectedRevocations());
+        }
+        log.debug("Revocation filter rebuilt with {} sessions in {} ms", count.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "PT10M", fixedDelayString = "PT1H")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh token families", deleted);
+        }
+    }
+
+    private LongBloomFilter newFilter() {
+        return new LongBloomFilter(properties.expectedRevocations(), properties.falsePositiveRate());
+    }
+
+    private LocalDateTime expiryFrom(LocalDateTime now) {
+        return now.plusNanos(refreshExpirationMs * 1_000_000);
+    }
+}
@@ -3,25 +3,49 @@ package com.workflow.security;
 import com.workflow.config.CaffeineCacheConfig;
 import com.workflow.model.User;
 import com.workflow.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Cache cache;
 
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Qualifier("caffeineCacheManager") CacheManager caffeineCacheManager) {
+        this.userRepository = userRepository;
+        this.cache = caffeineCacheManager.getCache(CaffeineCacheConfig.USER_DETAILS_CACHE);
+    }
+
+    /**
+     * A copy of the cached {@code UserDetails}: the authentication manager erases the password of the instance it
+     * authenticated, which must not be the one other logins are checked against.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(cacheNames = CaffeineCacheConfig.USER_DETAILS_CACHE, cacheManager = "caffeineCacheManager", key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached;
+        try {
+            cached = cache.get(username, () -> load(username));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof UsernameNotFoundException notFound) {
+                throw notFound;
+            }
+            throw e;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    private UserDetails load(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
@@ -36,4 +60,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .disabled(!user.isEnabled())
                 .build();
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose hash was made at a lower work factor.
+     * Runs in its own transaction, so the upgrade commits whatever the caller's transaction does.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @CacheEvict(cacheNames = CaffeineCacheConfig.USER_DETAILS_CACHE, cacheManager = "caffeineCacheManager", key = "#user.username")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
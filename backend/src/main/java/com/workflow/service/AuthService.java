@@ -7,14 +7,16 @@ import com.workflow.model.User;
 import com.workflow.repository.RoleRepository;
 import com.workflow.repository.UserRepository;
 import com.workflow.security.JwtTokenProvider;
+import com.workflow.security.RefreshTokenStore;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +28,12 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final RefreshTokenStore refreshTokenStore;
 
-    @Transactional
+    /**
+     * Deliberately not transactional, like {@link #login}: hashing waits on the password pool, which must not
+     * happen while holding a database connection. The repository calls run in their own short transactions.
+     */
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByUsername(request.username())) {
             throw new BadRequestException("Username already exists");
@@ -50,53 +56,69 @@ public class AuthService {
 
         userRepository.save(user);
 
-        String accessToken = tokenProvider.generateAccessToken(user.getUsername());
-        String refreshToken = tokenProvider.generateRefreshToken(user.getUsername());
-
-        return new AuthResponse(
-                accessToken,
-                refreshToken,
-                user.getUsername(),
-                user.getEmail(),
-                user.getRoles().stream().map(Role::getName).collect(Collectors.toUnmodifiableSet())
-        );
+        return startSession(user);
     }
 
-    @Transactional(readOnly = true)
+    /** Not transactional: see {@link #register}. Roles are fetched eagerly with the user. */
     public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
+        authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.username(), request.password()));
 
-        String accessToken = tokenProvider.generateAccessToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(request.username());
-
         User user = userRepository.findByUsername(request.username())
                 .orElseThrow(() -> new BadRequestException("User not found"));
 
-        return new AuthResponse(
-                accessToken,
-                refreshToken,
-                user.getUsername(),
-                user.getEmail(),
-                user.getRoles().stream().map(Role::getName).collect(Collectors.toUnmodifiableSet())
-        );
+        return startSession(user);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Exchanges a refresh token for a new pair. Each refresh token is single-use: the old one stops working,
+     * and presenting it again later revokes the session (see {@link RefreshTokenStore}).
+     * Tokens issued before rotation carry no session and are rejected, so those users sign in again once.
+     */
     public AuthResponse refreshToken(String refreshToken) {
-        if (!tokenProvider.validateToken(refreshToken)) {
-            throw new BadRequestException("Invalid refresh token");
+        Claims claims = refreshClaims(refreshToken)
+                .orElseThrow(() -> new BadRequestException("Invalid refresh token"));
+        long sessionId = claims.get(JwtTokenProvider.CLAIM_SESSION, Long.class);
+        String nextTokenId = UUID.randomUUID().toString();
+
+        switch (refreshTokenStore.rotate(sessionId, claims.getId(), nextTokenId)) {
+            case REUSED -> throw new BadRequestException("Refresh token was already used; the session has been revoked");
+            case INVALID -> throw new BadRequestException("Invalid refresh token");
+            case ROTATED -> { }
         }
-        String username = tokenProvider.getUsernameFromToken(refreshToken);
-        String newAccessToken = tokenProvider.generateAccessToken(username);
-        String newRefreshToken = tokenProvider.generateRefreshToken(username);
 
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsername(claims.getSubject())
                 .orElseThrow(() -> new BadRequestException("User not found"));
 
+        // Re-issued from the current user, so a refresh picks up role changes
+        return issueTokens(user, sessionId, nextTokenId);
+    }
+
+    /** Revokes the session of the given refresh token, which also invalidates its outstanding access tokens. */
+    public void logout(String refreshToken) {
+        refreshClaims(refreshToken).ifPresent(claims ->
+                refreshTokenStore.revoke(claims.get(JwtTokenProvider.CLAIM_SESSION, Long.class)));
+    }
+
+    private Optional<Claims> refreshClaims(String refreshToken) {
+        return tokenProvider.parseVerifiedClaims(refreshToken)
+                .filter(c -> JwtTokenProvider.TYPE_REFRESH.equals(c.get(JwtTokenProvider.CLAIM_TYPE, String.class)))
+                .filter(c -> c.getId() != null && c.get(JwtTokenProvider.CLAIM_SESSION, Long.class) != null);
+    }
+
+    private AuthResponse startSession(User user) {
+        String refreshTokenId = UUID.randomUUID().toString();
+        long sessionId = refreshTokenStore.startFamily(user.getId(), refreshTokenId);
+        return issueTokens(user, sessionId, refreshTokenId);
+    }
+
+    private AuthResponse issueTokens(User user, long sessionId, String refreshTokenId) {
+        String accessToken = tokenProvider.generateAccessToken(user, sessionId);
+        String refreshToken = tokenProvider.generateRefreshToken(user.getUsername(), sessionId, refreshTokenId);
+
         return new AuthResponse(
-                newAccessToken,
-                newRefreshToken,
+                accessToken,
+                refreshToken,
                 user.getUsername(),
                 user.getEmail(),
                 user.getRoles().stream().map(Role::getName).collect(Collectors.toUnmodifiableSet())
@@ -1,8 +1,10 @@
 package com.workflow.service;
 
-import com.workflow.model.BusinessRule;
-import com.workflow.model.FormField;
-import com.workflow.model.WorkflowStep;
+import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.FormFieldDto;
+import com.workflow.dto.WorkflowStepDto;
+import com.workflow.metrics.WorkflowMetrics;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.expression.EvaluationContext;
@@ -26,6 +28,7 @@ import java.util.Set;
  * no type references, no method calls, no bean references.
  */
 @Component
+@RequiredArgsConstructor
 public class BusinessRuleEvaluator {
 
     private static final Logger log = LoggerFactory.getLogger(BusinessRuleEvaluator.class);
@@ -33,11 +36,13 @@ public class BusinessRuleEvaluator {
     private static final ExpressionParser PARSER = new SpelExpressionParser();
     private static final Set<String> BLOCKING_ACTIONS = Set.of("REQUIRE_APPROVAL", "REJECT");
 
+    private final WorkflowMetrics workflowMetrics;
+
     /**
      * Build a context map for expression evaluation: form data by fieldKey,
      * plus each form field's label mapped to its value (so rules can use "int1" instead of "field_xxx").
      */
-    public Map<String, Object> buildContext(Map<String, Object> formData, WorkflowStep currentStep) {
+    public Map<String, Object> buildContext(Map<String, Object> formData, WorkflowStepDto currentStep) {
         Map<String, Object> context = new HashMap<>();
         if (formData != null) {
             for (Map.Entry<String, Object> e : formData.entrySet()) {
@@ -47,13 +52,13 @@ public class BusinessRuleEvaluator {
                 }
             }
         }
-        if (currentStep != null && currentStep.getFormFields() != null) {
-            for (FormField f : currentStep.getFormFields()) {
-                String key = f.getFieldKey();
+        if (currentStep != null && currentStep.formFields() != null) {
+            for (FormFieldDto f : currentStep.formFields()) {
+                String key = f.fieldKey();
                 if (key != null && formData != null && formData.containsKey(key)) {
                     Object val = formData.get(key);
                     if (val != null && !"".equals(val)) {
-                        String label = asIdentifier(f.getLabel());
+                        String label = asIdentifier(f.label());
                         if (label != null && !context.containsKey(label)) {
                             context.put(label, coerceNumber(val));
                         }
@@ -89,34 +94,39 @@ public class BusinessRuleEvaluator {
      * (REQUIRE_APPROVAL, REJECT), returns that rule's message. Otherwise returns null.
      * Uses a sandboxed SimpleEvaluationContext — no T() type references, no method calls.
      */
-    public String evaluateBlockingRules(List<BusinessRule> rules, Map<String, Object> context) {
+    public String evaluateBlockingRules(List<BusinessRuleDto> rules, Map<String, Object> context) {
         if (rules == null || context == null) return null;
 
         EvaluationContext evalContext = SimpleEvaluationContext
                 .forPropertyAccessors(new MapPropertyAccessor())
                 .build();
 
-        for (BusinessRule rule : rules) {
-            String expr = rule.getConditionExpression();
-            if (expr == null || expr.isBlank() || !BLOCKING_ACTIONS.contains(rule.getActionType())) {
+        for (BusinessRuleDto rule : rules) {
+            String expr = rule.conditionExpression();
+            if (expr == null || expr.isBlank() || !BLOCKING_ACTIONS.contains(rule.actionType())) {
                 continue;
             }
+            long start = System.nanoTime();
+            String outcome = "error";
             try {
                 Boolean result = PARSER.parseExpression(expr).getValue(evalContext, context, Boolean.class);
+                outcome = String.valueOf(Boolean.TRUE.equals(result));
                 if (Boolean.TRUE.equals(result)) {
-                    String action = rule.getActionType();
-                    String name = rule.getName() != null ? rule.getName() : "Rule";
+                    String action = rule.actionType();
+                    String name = rule.name() != null ? rule.name() : "Rule";
                     if ("REJECT".equals(action)) {
-                        return "Submission rejected by rule: " + name + (rule.getDescription() != null ? ". " + rule.getDescription() : "");
+                        return "Submission rejected by rule: " + name + (rule.description() != null ? ". " + rule.description() : "");
                     }
                     if ("REQUIRE_APPROVAL".equals(action)) {
-                        return "This submission requires approval (rule: " + name + "). " + (rule.getDescription() != null ? rule.getDescription() : "");
+                        return "This submission requires approval (rule: " + name + "). " + (rule.description() != null ? rule.description() : "");
                     }
                 }
             } catch (SpelParseException e) {
-                log.error("Unparseable business rule expression '{}' on rule '{}': {}", expr, rule.getName(), e.getMessage());
+                log.error("Unparseable business rule expression '{}' on rule '{}': {}", expr, rule.name(), e.getMessage());
             } catch (SpelEvaluationException e) {
-                log.warn("Failed to evaluate business rule '{}' with expression '{}': {}", rule.getName(), expr, e.getMessage());
+                log.warn("Failed to evaluate business rule '{}' with expression '{}': {}", rule.name(), expr, e.getMessage());
+            } finally {
+                workflowMetrics.recordRuleEvaluation(rule.id(), outcome, System.nanoTime() - start);
             }
         }
         return null;
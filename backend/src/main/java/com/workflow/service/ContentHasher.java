@@ -0,0 +1,41 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over the JSON form of a DTO, streamed straight into the digest so no byte array or string is built.
+ * Computed once when a value is loaded into a cache; requests compare against the cached hash.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentHasher {
+
+    private final ObjectMapper objectMapper;
+
+    public String hash(Object value) {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            objectMapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not hash " + value.getClass().getSimpleName(), e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.workflow.dto.InstanceExportRow;
+import com.workflow.exception.BadRequestException;
+import com.workflow.model.InstanceStatus;
+import com.workflow.repository.WorkflowInstanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes workflow instances for reporting as NDJSON (one JSON object per line) or CSV, straight from a
+ * forward-only database cursor. Rows are read as scalar projections, never as entities, so nothing accumulates
+ * in the persistence context and memory stays flat however many rows are exported. Compression is left to the
+ * server (see {@code server.compression}), which gzips the stream as it is written.
+ * <p>
+ * Form data is only read when asked for. It is stored as one JSON object per task submission, joined by
+ * {@link TaskService#FORM_DATA_SEPARATOR}, and exported as a JSON array of those objects: parsed in NDJSON, as
+ * text in one CSV column.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceExportWriter {
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown export format '" + format + "'; expected ndjson or csv");
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,workflowId,workflowName,currentStepId,currentStepName,"
+            + "assigneeUsername,initiatedByUsername,status,createdAt,completedAt";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final ObjectMapper objectMapper;
+
+    /** @param workflowId only instances of this workflow, or {@code null} for all */
+    @Transactional(readOnly = true)
+    public void write(Format format, boolean withFormData, Long workflowId, InstanceStatus status, OutputStream out)
+            throws IOException {
+        try (Stream<InstanceExportRow> rows = withFormData
+                ? instanceRepository.streamForExportWithFormData(workflowId, status)
+                : instanceRepository.streamForExport(workflowId, status)) {
+            switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), withFormData, out);
+                case CSV -> writeCsv(rows.iterator(), withFormData, out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<InstanceExportRow> rows, boolean withFormData, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                InstanceExportRow row = rows.next();
+                json.writeStartObject();
+                json.writeNumberField("id", row.id());
+                json.writeNumberField("workflowId", row.workflowId());
+                json.writeStringField("workflowName", row.workflowName());
+                json.writeObjectField("currentStepId", row.currentStepId());
+                json.writeStringField("currentStepName", row.currentStepName());
+                json.writeStringField("assigneeUsername", row.assigneeUsername());
+                json.writeStringField("initiatedByUsername", row.initiatedByUsername());
+                json.writeStringField("status", row.status().name());
+                json.writeStringField("createdAt", row.createdAt() != null ? row.createdAt().toString() : null);
+                json.writeStringField("completedAt", row.completedAt() != null ? row.completedAt().toString() : null);
+                if (withFormData) {
+                    json.writeFieldName("formData");
+                    writeFormData(json, row.formData());
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeFormData(JsonGenerator json, String formData) throws IOException {
+        if (formData == null) {
+            json.writeNull();
+            return;
+        }
+        json.writeTree(submissions(formData));
+    }
+
+    /**
+     * The submissions in stored form data, in order. Each is read as one JSON value that must be followed by the
+     * separator or the end, so a separator inside a string value does not split it; from the first part that does
+     * not parse that way, the rest is kept as a string.
+     */
+    private ArrayNode submissions(String formData) throws IOException {
+        ArrayNode submissions = objectMapper.createArrayNode();
+        int start = 0;
+        while (true) {
+            String rest = formData.substring(start);
+            JsonNode submission;
+            int end;
+            try (JsonParser parser = objectMapper.createParser(rest)) {
+                submission = objectMapper.readTree(parser);
+                end = (int) parser.currentLocation().getCharOffset();
+            } catch (JsonProcessingException e) {
+                submission = null;
+                end = -1;
+            }
+            boolean last = end == rest.length();
+            if (submission == null || !last && !rest.startsWith(TaskService.FORM_DATA_SEPARATOR, end)) {
+                submissions.add(rest);
+                return submissions;
+            }
+            submissions.add(submission);
+            if (last) {
+                return submissions;
+            }
+            start += end + TaskService.FORM_DATA_SEPARATOR.length();
+        }
+    }
+
+    private void writeCsv(Iterator<InstanceExportRow> rows, boolean withFormData, OutputStream out) throws IOException {
+        try (Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+            csv.write(withFormData ? CSV_HEADER + ",formData\r\n" : CSV_HEADER + "\r\n");
+            while (rows.hasNext()) {
+                InstanceExportRow row = rows.next();
+                csv.write(row.id().toString());
+                csv.write(',');
+                csv.write(row.workflowId().toString());
+                csv.write(',');
+                writeCsvField(csv, row.workflowName());
+                csv.write(',');
+                writeCsvField(csv, row.currentStepId() != null ? row.currentStepId().toString() : null);
+                csv.write(',');
+                writeCsvField(csv, row.currentStepName());
+                csv.write(',');
+                writeCsvField(csv, row.assigneeUsername());
+                csv.write(',');
+                writeCsvField(csv, row.initiatedByUsername());
+                csv.write(',');
+                csv.write(row.status().name());
+                csv.write(',');
+                writeCsvField(csv, row.createdAt() != null ? row.createdAt().toString() : null);
+                csv.write(',');
+                writeCsvField(csv, row.completedAt() != null ? row.completedAt().toString() : null);
+                if (withFormData) {
+                    csv.write(',');
+                    writeCsvField(csv, row.formData() != null
+                            ? objectMapper.writeValueAsString(submissions(row.formData())) : null);
+                }
+                csv.write("\r\n");
+            }
+        }
+    }
+
+    /**
+     * RFC 4180: quoted (with quotes doubled) only when the value contains a comma, quote or line break. A value a
+     * spreadsheet would evaluate as a formula (starting with {@code = + - @}, tab or carriage return) is prefixed
+     * with {@code '} and quoted, so that it opens as text.
+     */
+    private static void writeCsvField(Writer csv, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean formula = !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        if (formula) {
+            csv.write('\'');
+        }
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
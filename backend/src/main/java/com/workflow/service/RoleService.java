@@ -1,20 +1,26 @@
 package com.workflow.service;
 
 import com.workflow.dto.RoleDto;
+import com.workflow.dto.RoleListDto;
 import com.workflow.exception.BadRequestException;
 import com.workflow.exception.ResourceNotFoundException;
 import com.workflow.model.Role;
 import com.workflow.model.User;
 import com.workflow.repository.RoleRepository;
 import com.workflow.repository.UserRepository;
+import com.workflow.security.AuthStateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,20 +28,19 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final ContentHasher contentHasher;
+    private final AuthStateService authStateService;
 
-    @Cacheable(value = "roles")
+    /** All roles with their content hash; the hash is computed once per cache load and served as the ETag. */
+    @Cacheable(value = "roles", sync = true)
     @Transactional(readOnly = true)
-    public List<RoleDto> getAllRoles() {
-        return roleRepository.findAll().stream().map(this::toDto).toList();
+    public RoleListDto getAllRoles() {
+        // ArrayList (not Stream.toList()) so the JSON written to the Redis tier carries a type id it can be read back with
+        List<RoleDto> roles = roleRepository.findAll(Sort.by("id")).stream().map(this::toDto).collect(Collectors.toCollection(ArrayList::new));
+        return new RoleListDto(contentHasher.hash(roles), roles);
     }
 
-    /** Uncached list for assignment dropdowns; avoids cache manager issues in all profiles. */
-    @Transactional(readOnly = true)
-    public List<RoleDto> getAllRolesUncached() {
-        return roleRepository.findAll().stream().map(this::toDto).toList();
-    }
-
-    @Cacheable(value = "roles", key = "#id")
+    @Cacheable(value = "roles", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public RoleDto getRole(Long id) {
         return toDto(roleRepository.findById(id)
@@ -61,6 +66,11 @@ public class RoleService {
     public RoleDto updateRole(Long id, RoleDto dto) {
         Role role = roleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + id));
+        if (!role.getName().equals(dto.name())) {
+            // Access tokens carry role names: invalidate those of every holder
+            userRepository.incrementRoleVersionByRoleId(id);
+            authStateService.evictAllAfterCommit();
+        }
         role.setName(dto.name());
         role.setDescription(dto.description());
         if (dto.permissions() != null) {
@@ -75,6 +85,8 @@ public class RoleService {
         if (!roleRepository.existsById(id)) {
             throw new ResourceNotFoundException("Role not found: " + id);
         }
+        userRepository.incrementRoleVersionByRoleId(id);
+        authStateService.evictAllAfterCommit();
         roleRepository.deleteById(id);
     }
 
@@ -84,7 +96,9 @@ public class RoleService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
         Role role = roleRepository.findById(roleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleId));
-        user.getRoles().add(role);
+        if (user.getRoles().add(role)) {
+            bumpRoleVersion(user);
+        }
         userRepository.save(user);
     }
 
@@ -92,16 +106,26 @@ public class RoleService {
     public void removeRoleFromUser(Long userId, Long roleId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        user.getRoles().removeIf(r -> r.getId().equals(roleId));
+        if (user.getRoles().removeIf(r -> r.getId().equals(roleId))) {
+            bumpRoleVersion(user);
+        }
         userRepository.save(user);
     }
 
+    /** Access tokens issued before this change stop being accepted once the transaction commits. */
+    private void bumpRoleVersion(User user) {
+        user.setRoleVersion(user.getRoleVersion() + 1);
+        authStateService.evictAfterCommit(user.getId(), user.getUsername());
+    }
+
     private RoleDto toDto(Role role) {
         return new RoleDto(
                 role.getId(),
                 role.getName(),
                 role.getDescription(),
-                role.getPermissions()
+                // Copy out of the Hibernate collection so the DTO can be cached and serialized on its own;
+                // sorted so the content hash does not depend on set iteration order
+                role.getPermissions() != null ? new TreeSet<>(role.getPermissions()) : new TreeSet<>()
         );
     }
 }
@@ -2,12 +2,24 @@ package com.workflow.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.concurrent.FailFastScope;
+import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.TaskDetailDto;
+import com.workflow.dto.TaskPermissionsDto;
+import com.workflow.dto.WorkflowDto;
 import com.workflow.dto.WorkflowInstanceDto;
+import com.workflow.dto.WorkflowStepDto;
+import com.workflow.event.TaskEvent;
 import com.workflow.exception.BadRequestException;
 import com.workflow.exception.ResourceNotFoundException;
+import com.workflow.metrics.EnginePhaseEvents;
+import com.workflow.metrics.WorkflowMetrics;
 import com.workflow.model.*;
 import com.workflow.repository.*;
+import com.workflow.security.PermissionResolver;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -18,48 +30,62 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    /** Joins the JSON objects of successive submissions in {@code WorkflowInstance.formData}. */
+    public static final String FORM_DATA_SEPARATOR = "|||";
     private static final int MAX_FORM_DATA_LENGTH = 50_000;
 
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowRepository workflowRepository;
-    private final WorkflowStepRepository stepRepository;
+    private final WorkflowVersionRepository versionRepository;
     private final UserRepository userRepository;
+    private final WorkflowVersionService versionService;
+    private final WorkflowService workflowService;
     private final BusinessRuleEvaluator ruleEvaluator;
     private final ObjectMapper objectMapper;
+    private final PermissionResolver permissionResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkflowMetrics workflowMetrics;
 
     @Transactional
     public WorkflowInstanceDto startWorkflow(Long workflowId, String username) {
-        Workflow workflow = workflowRepository.findWithStepsById(workflowId)
+        Timer.Sample sample = workflowMetrics.startTimer();
+        Workflow workflow = workflowRepository.findById(workflowId)
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + workflowId));
+        // Only ids of existing workflows become tag values
+        workflowMetrics.recordOnCompletion(sample, WorkflowMetrics.TASK_START, workflowId);
 
-        if (workflow.getStatus() != WorkflowStatus.PUBLISHED) {
-            throw new BadRequestException("Only published workflows can be started");
-        }
+        Long versionId = versionService.findPublishedVersionId(workflowId)
+                .orElseThrow(() -> new BadRequestException("Only published workflows can be started"));
+        WorkflowDto definition = versionService.getVersion(versionId).definition();
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        List<WorkflowStep> steps = workflow.getSteps();
-        WorkflowStep firstStep = steps.stream()
-                .filter(s -> s.getType() == StepType.START || s.getStepOrder() == 0)
+        List<WorkflowStepDto> steps = definition.steps();
+        WorkflowStepDto firstStep = steps.stream()
+                .filter(s -> s.type() == StepType.START || s.stepOrder() == 0)
                 .findFirst()
                 .orElse(steps.isEmpty() ? null : steps.get(0));
 
         WorkflowInstance instance = WorkflowInstance.builder()
                 .workflow(workflow)
-                .currentStep(firstStep)
+                .definitionVersion(versionRepository.getReferenceById(versionId))
                 .initiatedBy(user)
                 .assignee(user)
                 .status(InstanceStatus.IN_PROGRESS)
                 .build();
+        moveToStep(instance, firstStep);
+        if (firstStep != null) {
+            workflowMetrics.countTransitionOnCommit(workflowId, firstStep);
+        }
 
-        return toDto(instanceRepository.save(instance));
+        return publish(TaskEvent.Type.CREATED, instanceRepository.save(instance));
     }
 
     @Transactional(readOnly = true)
@@ -77,34 +103,78 @@ public class TaskService {
         return toDto(instance);
     }
 
+    /** Definition the task runs against: its pinned version, so later edits or republishes don't affect it. */
+    @Transactional(readOnly = true)
+    public WorkflowDto getTaskDefinition(Long id, String username, WorkflowFields fields) {
+        WorkflowInstance instance = instanceRepository.findByIdWithAssigneeAndInitiator(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + id));
+        ensureCanAccessTask(instance, username);
+        return fields.apply(definitionOf(instance));
+    }
+
+    /**
+     * The task, its pinned definition and what the caller may do with it, for the task screen. The instance and
+     * the definition are read concurrently (the definition only needs the version id from the instance row), so
+     * this costs the slower of the two reads rather than both; a failing read cancels the other.
+     * Not transactional: each branch runs its own read-only transaction on its own thread.
+     */
+    public TaskDetailDto getTaskDetail(Long id, String username, WorkflowFields fields) {
+        try (FailFastScope scope = new FailFastScope()) {
+            Supplier<WorkflowInstance> instance = scope.fork(() -> instanceRepository.findByIdWithAssigneeAndInitiator(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + id)));
+            Supplier<WorkflowDto> definition = scope.fork(() -> instanceRepository.findDefinitionRefById(id)
+                    .map(ref -> fields.apply(definitionOf(ref.getVersionId(), ref.getWorkflowId())))
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + id)));
+            // Token claims only, no I/O; the caller's security context is not visible to the branches anyway
+            boolean admin = permissionResolver.currentUserHasRole("ADMIN");
+            scope.join();
+
+            WorkflowInstance task = instance.get();
+            ensureCanAccessTask(task, username, admin);
+            boolean inProgress = task.getStatus() == InstanceStatus.IN_PROGRESS;
+            return new TaskDetailDto(toDto(task), definition.get(), new TaskPermissionsDto(inProgress, inProgress));
+        }
+    }
+
     @Transactional
     public WorkflowInstanceDto submitStep(Long instanceId, Map<String, Object> formDataMap, String username) {
+        Timer.Sample sample = workflowMetrics.startTimer();
+        EnginePhaseEvents.LoadInstance loadInstance = new EnginePhaseEvents.LoadInstance();
+        loadInstance.begin();
         WorkflowInstance instance = instanceRepository.findByIdWithAssigneeAndInitiator(instanceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + instanceId));
+        Long workflowId = instance.getWorkflow().getId();
+        Long stepId = instance.getCurrentStepId();
+        loadInstance.finish(workflowId, stepId, 0);
+        workflowMetrics.recordOnCompletion(sample, WorkflowMetrics.TASK_SUBMIT, workflowId);
         ensureCanAccessTask(instance, username);
 
         if (instance.getStatus() != InstanceStatus.IN_PROGRESS) {
             throw new BadRequestException("Task is not in progress");
         }
 
-        Workflow workflow = instance.getWorkflow();
-        if (workflow.getId() != null) {
-            workflow = workflowRepository.findWithStepsById(workflow.getId()).orElse(workflow);
-        }
-
-        WorkflowStep currentStep = instance.getCurrentStep();
-        if (currentStep != null && workflow.getSteps() != null) {
-            WorkflowStep stepWithFields = workflow.getSteps().stream()
-                    .filter(s -> s.getId().equals(currentStep.getId()))
-                    .findFirst()
-                    .orElse(currentStep);
+        EnginePhaseEvents.LoadDefinition loadDefinition = new EnginePhaseEvents.LoadDefinition();
+        loadDefinition.begin();
+        WorkflowDto definition = definitionOf(instance);
+        WorkflowStepDto currentStep = findStep(definition, stepId);
+        loadDefinition.finish(workflowId, stepId, 0);
+        int ruleCount = 0;
+        if (currentStep != null) {
             // Prefer step-level rules; fall back to workflow-level (legacy)
-            List<BusinessRule> rulesToEvaluate = stepWithFields.getBusinessRules() != null && !stepWithFields.getBusinessRules().isEmpty()
-                    ? stepWithFields.getBusinessRules()
-                    : (workflow.getBusinessRules() != null ? workflow.getBusinessRules() : Collections.emptyList());
+            List<BusinessRuleDto> rulesToEvaluate = currentStep.businessRules() != null && !currentStep.businessRules().isEmpty()
+                    ? currentStep.businessRules()
+                    : (definition.businessRules() != null ? definition.businessRules() : Collections.emptyList());
+            ruleCount = rulesToEvaluate.size();
             if (!rulesToEvaluate.isEmpty()) {
-                Map<String, Object> context = ruleEvaluator.buildContext(formDataMap, stepWithFields);
+                EnginePhaseEvents.BuildContext buildContext = new EnginePhaseEvents.BuildContext();
+                buildContext.begin();
+                Map<String, Object> context = ruleEvaluator.buildContext(formDataMap, currentStep);
+                buildContext.finish(workflowId, stepId, ruleCount);
+
+                EnginePhaseEvents.EvaluateRules evaluateRules = new EnginePhaseEvents.EvaluateRules();
+                evaluateRules.begin();
                 String blockMessage = ruleEvaluator.evaluateBlockingRules(rulesToEvaluate, context);
+                evaluateRules.finish(workflowId, stepId, ruleCount, blockMessage != null);
                 if (blockMessage != null) {
                     throw new BadRequestException(blockMessage);
                 }
@@ -112,10 +182,12 @@ public class TaskService {
         }
 
         // Serialize form data as JSON
+        EnginePhaseEvents.SerializeForm serializeForm = new EnginePhaseEvents.SerializeForm();
+        serializeForm.begin();
         String formDataJson = serializeFormData(formDataMap);
         String existingData = instance.getFormData();
         if (existingData != null && !existingData.isEmpty()) {
-            String combined = existingData + "|||" + formDataJson;
+            String combined = existingData + FORM_DATA_SEPARATOR + formDataJson;
             if (combined.length() > MAX_FORM_DATA_LENGTH) {
                 throw new BadRequestException("Accumulated form data exceeds maximum allowed size");
             }
@@ -123,22 +195,21 @@ public class TaskService {
         } else {
             instance.setFormData(formDataJson);
         }
+        serializeForm.finish(workflowId, stepId, ruleCount);
 
-        // Advance to next step
-        if (currentStep != null) {
-            List<WorkflowStep> steps = stepRepository.findByWorkflowIdOrderByStepOrderAsc(
-                    instance.getWorkflow().getId());
-
-            int currentIndex = IntStream.range(0, steps.size())
-                    .filter(i -> steps.get(i).getId().equals(currentStep.getId()))
-                    .findFirst()
-                    .orElse(-1);
+        // Advance to next step (in the pinned definition's step order)
+        EnginePhaseEvents.AdvanceStep advanceStep = new EnginePhaseEvents.AdvanceStep();
+        advanceStep.begin();
+        if (instance.getCurrentStepId() != null) {
+            List<WorkflowStepDto> steps = definition.steps();
+            int currentIndex = currentStep != null ? steps.indexOf(currentStep) : -1;
 
             if (currentIndex >= 0 && currentIndex < steps.size() - 1) {
-                WorkflowStep nextStep = steps.get(currentIndex + 1);
-                instance.setCurrentStep(nextStep);
+                WorkflowStepDto nextStep = steps.get(currentIndex + 1);
+                moveToStep(instance, nextStep);
+                workflowMetrics.countTransitionOnCommit(workflowId, nextStep);
 
-                if (nextStep.getType() == StepType.END) {
+                if (nextStep.type() == StepType.END) {
                     instance.setStatus(InstanceStatus.COMPLETED);
                     instance.setCompletedAt(LocalDateTime.now());
                 }
@@ -146,10 +217,14 @@ public class TaskService {
                 // No more steps, complete
                 instance.setStatus(InstanceStatus.COMPLETED);
                 instance.setCompletedAt(LocalDateTime.now());
+                workflowMetrics.countTransitionOnCommit(workflowId, null);
             }
         }
 
-        return toDto(instanceRepository.save(instance));
+        WorkflowInstanceDto advanced = publish(TaskEvent.Type.ADVANCED, instanceRepository.save(instance));
+        advanceStep.finish(workflowId, stepId, ruleCount);
+        EnginePhaseEvents.Commit.onCompletion(workflowId, stepId);
+        return advanced;
     }
 
     @Transactional
@@ -158,7 +233,42 @@ public class TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + instanceId));
         ensureCanAccessTask(instance, username);
         instance.setStatus(InstanceStatus.CANCELLED);
-        return toDto(instanceRepository.save(instance));
+        return publish(TaskEvent.Type.CANCELLED, instanceRepository.save(instance));
+    }
+
+    /** Announces the change to the task's subscribers; delivered only if the surrounding transaction commits. */
+    private WorkflowInstanceDto publish(TaskEvent.Type type, WorkflowInstance instance) {
+        WorkflowInstanceDto dto = toDto(instance);
+        eventPublisher.publishEvent(new TaskEvent(type, dto));
+        return dto;
+    }
+
+    /** Pinned version when present; instances started before versioning fall back to the live definition. */
+    private WorkflowDto definitionOf(WorkflowInstance instance) {
+        return definitionOf(instance.getDefinitionVersion() != null ? instance.getDefinitionVersion().getId() : null,
+                instance.getWorkflow().getId());
+    }
+
+    private WorkflowDto definitionOf(Long versionId, Long workflowId) {
+        if (versionId != null) {
+            return versionService.getVersion(versionId).definition();
+        }
+        return workflowService.getWorkflow(workflowId).definition();
+    }
+
+    private static WorkflowStepDto findStep(WorkflowDto definition, Long stepId) {
+        if (stepId == null || definition.steps() == null) {
+            return null;
+        }
+        return definition.steps().stream()
+                .filter(s -> stepId.equals(s.id()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static void moveToStep(WorkflowInstance instance, WorkflowStepDto step) {
+        instance.setCurrentStepId(step != null ? step.id() : null);
+        instance.setCurrentStepName(step != null ? step.name() : null);
     }
 
     private String serializeFormData(Map<String, Object> formDataMap) {
@@ -174,19 +284,19 @@ public class TaskService {
 
     /**
      * Check access using the already-fetched assignee/initiator on the instance,
-     * only hitting the DB for the current user when the fast checks fail (admin check).
+     * falling back to the caller's permission bitset for the admin check (no DB access).
      */
     private void ensureCanAccessTask(WorkflowInstance instance, String username) {
+        ensureCanAccessTask(instance, username, permissionResolver.currentUserHasRole("ADMIN"));
+    }
+
+    private static void ensureCanAccessTask(WorkflowInstance instance, String username, boolean admin) {
         boolean isAssignee = instance.getAssignee() != null && username.equals(instance.getAssignee().getUsername());
         boolean isInitiator = instance.getInitiatedBy() != null && username.equals(instance.getInitiatedBy().getUsername());
         if (isAssignee || isInitiator) {
             return;
         }
-        // Only query DB if we need to check admin role
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AccessDeniedException("User not found"));
-        boolean isAdmin = currentUser.getRoles().stream().anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
-        if (!isAdmin) {
+        if (!admin) {
             throw new AccessDeniedException("Not authorized to access this task");
         }
     }
@@ -196,8 +306,8 @@ public class TaskService {
                 instance.getId(),
                 instance.getWorkflow().getId(),
                 instance.getWorkflow().getName(),
-                instance.getCurrentStep() != null ? instance.getCurrentStep().getId() : null,
-                instance.getCurrentStep() != null ? instance.getCurrentStep().getName() : null,
+                instance.getCurrentStepId(),
+                instance.getCurrentStepName(),
                 instance.getAssignee() != null ? instance.getAssignee().getUsername() : null,
                 instance.getInitiatedBy() != null ? instance.getInitiatedBy().getUsername() : null,
                 instance.getStatus(),
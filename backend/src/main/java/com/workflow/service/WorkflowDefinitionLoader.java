@@ -0,0 +1,154 @@
+package com.workflow.service;
+
+import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.FormFieldDto;
+import com.workflow.dto.WorkflowDto;
+import com.workflow.dto.WorkflowStepDto;
+import com.workflow.metrics.WorkflowMetrics;
+import com.workflow.model.BusinessRule;
+import com.workflow.model.FormField;
+import com.workflow.model.Workflow;
+import com.workflow.model.WorkflowStep;
+import com.workflow.repository.BusinessRuleRepository;
+import com.workflow.repository.FormFieldRepository;
+import com.workflow.repository.WorkflowRepository;
+import com.workflow.repository.WorkflowStepRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Loads a full workflow definition as a {@link WorkflowDto} with one flat query per level
+ * (workflow, steps, form fields, business rules), all keyed by workflow id.
+ * Row count is linear in the size of the definition instead of steps × fields,
+ * and the DTO is assembled directly without touching lazy collections.
+ * With a {@link WorkflowFields} selection, levels that were not asked for are not queried at all.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowDefinitionLoader {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowStepRepository stepRepository;
+    private final FormFieldRepository formFieldRepository;
+    private final BusinessRuleRepository businessRuleRepository;
+    private final WorkflowMetrics workflowMetrics;
+
+    @Transactional(readOnly = true)
+    public Optional<WorkflowDto> load(Long workflowId) {
+        return load(workflowId, WorkflowFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<WorkflowDto> load(Long workflowId, WorkflowFields fields) {
+        return workflowRepository.findHeaderById(workflowId).map(header ->
+                workflowMetrics.timeDefinitionLoad(workflowId, fields.isAll(), () -> assemble(header, fields)));
+    }
+
+    private WorkflowDto assemble(WorkflowRepository.Header header, WorkflowFields fields) {
+        Workflow workflow = header.getWorkflow();
+        Long workflowId = workflow.getId();
+        // The aggregated rule list is in step order, so it needs the steps too
+        List<WorkflowStep> steps = fields.steps() || fields.businessRules()
+                ? stepRepository.findWithAssignedRoleByWorkflowId(workflowId)
+                : List.of();
+
+        Map<Long, List<FormFieldDto>> fieldsByStep = new HashMap<>();
+        if (fields.stepFormFields()) {
+            for (FormField field : formFieldRepository.findAllByWorkflowId(workflowId)) {
+                fieldsByStep.computeIfAbsent(field.getStep().getId(), k -> new ArrayList<>()).add(fieldToDto(field));
+            }
+        }
+
+        // Rules come back ordered by ruleOrder; split into step-level and legacy workflow-level
+        Map<Long, List<BusinessRuleDto>> rulesByStep = new HashMap<>();
+        List<BusinessRuleDto> workflowLevelRules = new ArrayList<>();
+        if (fields.stepBusinessRules() || fields.businessRules()) {
+            for (BusinessRule rule : businessRuleRepository.findAllByWorkflowId(workflowId)) {
+                if (rule.getStep() != null) {
+                    rulesByStep.computeIfAbsent(rule.getStep().getId(), k -> new ArrayList<>()).add(ruleToDto(rule));
+                } else {
+                    workflowLevelRules.add(ruleToDto(rule));
+                }
+            }
+        }
+
+        List<WorkflowStepDto> stepDtos = fields.steps() ? new ArrayList<>(steps.size()) : null;
+        // Aggregate all step-level rules (in step order) for backward compatibility (workflow.businessRules)
+        List<BusinessRuleDto> ruleDtos = fields.businessRules() ? new ArrayList<>() : null;
+        for (WorkflowStep step : steps) {
+            List<BusinessRuleDto> stepRules = rulesByStep.getOrDefault(step.getId(), List.of());
+            if (stepDtos != null) {
+                stepDtos.add(stepToDto(step,
+                        fields.stepFormFields() ? fieldsByStep.getOrDefault(step.getId(), List.of()) : null,
+                        fields.stepBusinessRules() ? stepRules : null));
+            }
+            if (ruleDtos != null) {
+                ruleDtos.addAll(stepRules);
+            }
+        }
+        if (ruleDtos != null) {
+            ruleDtos.addAll(workflowLevelRules);
+        }
+
+        return new WorkflowDto(
+                workflowId,
+                workflow.getName(),
+                workflow.getDescription(),
+                workflow.getStatus(),
+                header.getCreatedByUsername(),
+                stepDtos,
+                ruleDtos,
+                workflow.getCreatedAt() != null ? workflow.getCreatedAt().toString() : null
+        );
+    }
+
+    static WorkflowStepDto stepToDto(WorkflowStep step, List<FormFieldDto> fieldDtos, List<BusinessRuleDto> ruleDtos) {
+        return new WorkflowStepDto(
+                step.getId(),
+                step.getName(),
+                step.getDescription(),
+                step.getType(),
+                step.getStepOrder(),
+                step.getAssignedRole() != null ? step.getAssignedRole().getId() : null,
+                step.getAssignedRole() != null ? step.getAssignedRole().getName() : null,
+                step.getPositionX(),
+                step.getPositionY(),
+                step.getTransitionTargets(),
+                fieldDtos,
+                ruleDtos
+        );
+    }
+
+    static BusinessRuleDto ruleToDto(BusinessRule rule) {
+        return new BusinessRuleDto(
+                rule.getId(),
+                rule.getName(),
+                rule.getDescription(),
+                rule.getConditionExpression(),
+                rule.getActionType(),
+                rule.getTargetStepId(),
+                rule.getRuleOrder()
+        );
+    }
+
+    static FormFieldDto fieldToDto(FormField field) {
+        return new FormFieldDto(
+                field.getId(),
+                field.getLabel(),
+                field.getFieldKey(),
+                field.getFieldType(),
+                field.isRequired(),
+                field.getPlaceholder(),
+                field.getOptions(),
+                field.getValidationRegex(),
+                field.getFieldOrder()
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.FormFieldDto;
+import com.workflow.exception.ResourceNotFoundException;
+import com.workflow.model.BusinessRule;
+import com.workflow.model.FormField;
+import com.workflow.model.Workflow;
+import com.workflow.model.WorkflowStep;
+import com.workflow.repository.BusinessRuleRepository;
+import com.workflow.repository.FormFieldRepository;
+import com.workflow.repository.WorkflowRepository;
+import com.workflow.repository.WorkflowStepRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes workflow definitions as JSON straight to an output stream while reading them through database cursors,
+ * for definitions and exports too large to build as a {@link com.workflow.dto.WorkflowDto} first. The JSON is
+ * the same as the DTO's, but only one step (with its fields and rules) is in memory at a time: steps, fields and
+ * rules are read by separate cursors in the same step order and merged, and every row is detached from the
+ * persistence context once written.
+ * <p>
+ * The transaction, and so a pooled connection, stays open until the client has received everything.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowDefinitionWriter {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowStepRepository stepRepository;
+    private final FormFieldRepository formFieldRepository;
+    private final BusinessRuleRepository businessRuleRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /** Fails before anything is written, while an error response is still possible. */
+    public void ensureExists(Long workflowId) {
+        if (!workflowRepository.existsById(workflowId)) {
+            throw new ResourceNotFoundException("Workflow not found: " + workflowId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeDefinition(Long workflowId, WorkflowFields fields, OutputStream out) throws IOException {
+        WorkflowRepository.Header header = workflowRepository.findHeaderById(workflowId)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + workflowId));
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            writeDefinition(json, header, fields);
+        }
+    }
+
+    /** Every workflow's definition, as a JSON array in id order. */
+    @Transactional(readOnly = true)
+    public void writeAllDefinitions(WorkflowFields fields, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(out);
+             Stream<Long> ids = workflowRepository.streamAllIds()) {
+            json.writeStartArray();
+            for (Iterator<Long> it = ids.iterator(); it.hasNext(); ) {
+                WorkflowRepository.Header header = workflowRepository.findHeaderById(it.next()).orElse(null);
+                if (header != null) {
+                    writeDefinition(json, header, fields);
+                }
+                // Roles referenced by the definition are the only entities left managed
+                entityManager.clear();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    /** Property names and order follow {@link com.workflow.dto.WorkflowDto}. */
+    private void writeDefinition(JsonGenerator json, WorkflowRepository.Header header, WorkflowFields fields)
+            throws IOException {
+        Workflow workflow = header.getWorkflow();
+        Long workflowId = workflow.getId();
+        json.writeStartObject();
+        json.writeObjectField("id", workflowId);
+        json.writeStringField("name", workflow.getName());
+        json.writeStringField("description", workflow.getDescription());
+        json.writeObjectField("status", workflow.getStatus());
+        json.writeStringField("createdByUsername", header.getCreatedByUsername());
+        if (fields.steps()) {
+            json.writeArrayFieldStart("steps");
+            writeSteps(json, workflowId, fields);
+            json.writeEndArray();
+        }
+        if (fields.businessRules()) {
+            json.writeArrayFieldStart("businessRules");
+            try (Stream<BusinessRule> rules = businessRuleRepository.streamStepRulesInStepOrder(workflowId)) {
+                writeRules(json, rules);
+            }
+            try (Stream<BusinessRule> rules = businessRuleRepository.streamWorkflowLevelRules(workflowId)) {
+                writeRules(json, rules);
+            }
+            json.writeEndArray();
+        }
+        json.writeStringField("createdAt", workflow.getCreatedAt() != null ? workflow.getCreatedAt().toString() : null);
+        json.writeEndObject();
+        entityManager.detach(workflow);
+        json.flush();
+    }
+
+    private void writeSteps(JsonGenerator json, Long workflowId, WorkflowFields fields) throws IOException {
+        try (Stream<WorkflowStep> steps = stepRepository.streamWithAssignedRoleByWorkflowId(workflowId);
+             Stream<FormField> formFields = fields.stepFormFields()
+                     ? formFieldRepository.streamByWorkflowIdInStepOrder(workflowId) : Stream.empty();
+             Stream<BusinessRule> rules = fields.stepBusinessRules()
+                     ? businessRuleRepository.streamStepRulesInStepOrder(workflowId) : Stream.empty()) {
+            StepRows<FormField> fieldRows = new StepRows<>(formFields.iterator(), field -> field.getStep().getId());
+            StepRows<BusinessRule> ruleRows = new StepRows<>(rules.iterator(), rule -> rule.getStep().getId());
+            for (Iterator<WorkflowStep> it = steps.iterator(); it.hasNext(); ) {
+                WorkflowStep step = it.next();
+                List<FormFieldDto> stepFields = fields.stepFormFields()
+                        ? fieldRows.take(step.getId(), WorkflowDefinitionLoader::fieldToDto) : null;
+                List<BusinessRuleDto> stepRules = fields.stepBusinessRules()
+                        ? ruleRows.take(step.getId(), WorkflowDefinitionLoader::ruleToDto) : null;
+                json.writeObject(WorkflowDefinitionLoader.stepToDto(step, stepFields, stepRules));
+                entityManager.detach(step);
+            }
+        }
+    }
+
+    private void writeRules(JsonGenerator json, Stream<BusinessRule> rules) throws IOException {
+        for (Iterator<BusinessRule> it = rules.iterator(); it.hasNext(); ) {
+            BusinessRule rule = it.next();
+            json.writeObject(WorkflowDefinitionLoader.ruleToDto(rule));
+            entityManager.detach(rule);
+        }
+    }
+
+    /** A cursor of child rows in step order, consumed one step at a time. */
+    private final class StepRows<T> {
+
+        private final Iterator<T> rows;
+        private final Function<T, Long> stepId;
+        private T next;
+
+        StepRows(Iterator<T> rows, Function<T, Long> stepId) {
+            this.rows = rows;
+            this.stepId = stepId;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        /** The rows of the given step, which must be the next step in order. */
+        <D> List<D> take(Long step, Function<T, D> toDto) {
+            List<D> taken = new ArrayList<>();
+            while (next != null && step.equals(stepId.apply(next))) {
+                taken.add(toDto.apply(next));
+                entityManager.detach(next);
+                next = rows.hasNext() ? rows.next() : null;
+            }
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.workflow.service;
+
+import com.workflow.dto.WorkflowDto;
+import com.workflow.dto.WorkflowStepDto;
+import com.workflow.exception.BadRequestException;
+
+import java.util.List;
+
+/**
+ * Which collections of a {@link WorkflowDto} a client asked for with {@code fields=}. Scalar properties are always
+ * included; collections are only included when listed, so {@code fields=} alone returns the workflow header.
+ * <ul>
+ *   <li>{@code steps}: the steps with their scalar properties</li>
+ *   <li>{@code steps.formFields}, {@code steps.businessRules}: per-step collections (imply {@code steps})</li>
+ *   <li>{@code businessRules}: all rules of the workflow, step rules in step order then workflow-level ones</li>
+ * </ul>
+ * Omitting the parameter selects everything. Unselected collections are {@code null} and left out of the JSON.
+ */
+public record WorkflowFields(boolean steps, boolean stepFormFields, boolean stepBusinessRules, boolean businessRules) {
+
+    public static final WorkflowFields ALL = new WorkflowFields(true, true, true, true);
+
+    private static final List<String> NAMES = List.of("steps", "steps.formFields", "steps.businessRules", "businessRules");
+
+    /** @param fields comma-separated field names, or {@code null} for all */
+    public static WorkflowFields parse(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        boolean steps = false, stepFormFields = false, stepBusinessRules = false, businessRules = false;
+        for (String field : fields.split(",")) {
+            switch (field.strip()) {
+                case "" -> { }
+                case "steps" -> steps = true;
+                case "steps.formFields" -> stepFormFields = true;
+                case "steps.businessRules" -> stepBusinessRules = true;
+                case "businessRules" -> businessRules = true;
+                default -> throw new BadRequestException(
+                        "Unknown field '" + field.strip() + "'; expected any of " + String.join(", ", NAMES));
+            }
+        }
+        return new WorkflowFields(steps || stepFormFields || stepBusinessRules, stepFormFields, stepBusinessRules,
+                businessRules);
+    }
+
+    public boolean isAll() {
+        return equals(ALL);
+    }
+
+    /**
+     * ETag of this view of a definition with the given content hash. A view is a function of the full content and
+     * the selection, so the hash plus the selection identifies it without hashing the view itself.
+     */
+    public String tagOf(String contentHash) {
+        if (isAll()) {
+            return contentHash;
+        }
+        int mask = (steps ? 1 : 0) | (stepFormFields ? 2 : 0) | (stepBusinessRules ? 4 : 0) | (businessRules ? 8 : 0);
+        return contentHash + "-f" + mask;
+    }
+
+    /**
+     * The selected view of an already assembled definition (e.g. a cached one). Selected collections are shared,
+     * not copied; only the step records are rebuilt when a per-step collection is left out.
+     */
+    public WorkflowDto apply(WorkflowDto definition) {
+        if (isAll()) {
+            return definition;
+        }
+        List<WorkflowStepDto> selectedSteps = null;
+        if (steps && definition.steps() != null) {
+            selectedSteps = stepFormFields && stepBusinessRules
+                    ? definition.steps()
+                    : definition.steps().stream().map(this::apply).toList();
+        }
+        return new WorkflowDto(
+                definition.id(),
+                definition.name(),
+                definition.description(),
+                definition.status(),
+                definition.createdByUsername(),
+                selectedSteps,
+                businessRules ? definition.businessRules() : null,
+                definition.createdAt()
+        );
+    }
+
+    private WorkflowStepDto apply(WorkflowStepDto step) {
+        return new WorkflowStepDto(
+                step.id(),
+                step.name(),
+                step.description(),
+                step.type(),
+                step.stepOrder(),
+                step.assignedRoleId(),
+                step.assignedRoleName(),
+                step.positionX(),
+                step.positionY(),
+                step.transitionTargets(),
+                stepFormFields ? step.formFields() : null,
+                stepBusinessRules ? step.businessRules() : null
+        );
+    }
+}
@@ -1,10 +1,13 @@
 package com.workflow.service;
 
+import com.workflow.config.CaffeineCacheConfig;
+import com.workflow.dto.WorkflowDefinitionDto;
 import com.workflow.dto.WorkflowDto;
 import com.workflow.dto.WorkflowListDto;
 import com.workflow.dto.WorkflowStepDto;
 import com.workflow.dto.FormFieldDto;
 import com.workflow.dto.BusinessRuleDto;
+import com.workflow.dto.WorkflowVersionDto;
 import com.workflow.exception.BadRequestException;
 import com.workflow.exception.ResourceNotFoundException;
 import com.workflow.model.BusinessRule;
@@ -17,17 +20,16 @@ import com.workflow.model.WorkflowStep;
 import com.workflow.model.WorkflowStatus;
 import com.workflow.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
 public class WorkflowService {
@@ -37,13 +39,35 @@ public class WorkflowService {
     private final FormFieldRepository formFieldRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-
-    @Cacheable(value = "workflows", key = "#id")
+    private final WorkflowDefinitionLoader definitionLoader;
+    private final WorkflowVersionRepository versionRepository;
+    private final WorkflowVersionService versionService;
+    private final ContentHasher contentHasher;
+    private final CacheManager cacheManager;
+
+    /** Current (possibly unpublished) definition with its content hash, for the designer. */
+    @Cacheable(value = "workflows", key = "#id", sync = true)
     @Transactional(readOnly = true)
-    public WorkflowDto getWorkflow(Long id) {
-        Workflow workflow = workflowRepository.findWithStepsById(id)
+    public WorkflowDefinitionDto getWorkflow(Long id) {
+        WorkflowDto definition = loadDefinition(id);
+        return new WorkflowDefinitionDto(contentHasher.hash(definition), definition);
+    }
+
+    /**
+     * A {@code fields=} view of the current definition with its ETag value. Cut from the cached full definition
+     * when there is one, tagged from the full hash ({@link WorkflowFields#tagOf}) without serializing the view.
+     * Otherwise only the selected levels are queried, the partial result is hashed and not cached; that tag
+     * differs from the cut one, which costs a client at most one full response.
+     */
+    public WorkflowDefinitionDto getWorkflow(Long id, WorkflowFields fields) {
+        Cache cache = cacheManager.getCache(CaffeineCacheConfig.WORKFLOWS_CACHE);
+        Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+        if (cached != null && cached.get() instanceof WorkflowDefinitionDto full) {
+            return new WorkflowDefinitionDto(fields.tagOf(full.contentHash()), fields.apply(full.definition()));
+        }
+        WorkflowDto definition = definitionLoader.load(id, fields)
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + id));
-        return toDto(workflow);
+        return new WorkflowDefinitionDto(contentHasher.hash(definition), definition);
     }
 
     @Transactional(readOnly = true)
@@ -56,18 +80,19 @@ public class WorkflowService {
         return workflowRepository.findByStatusList(WorkflowStatus.PUBLISHED, pageable);
     }
 
-    /** Returns workflow details only if published (for users to load form when executing a task). */
+    /**
+     * Returns the currently published version of a workflow (for users to load the form when starting a task).
+     * Edits made after publishing are not visible here until the workflow is published again.
+     * Cached per workflow so conditional requests are answered from the version's content hash.
+     */
+    @Cacheable(value = CaffeineCacheConfig.PUBLISHED_WORKFLOWS_CACHE, key = "#id", sync = true)
     @Transactional(readOnly = true)
-    public WorkflowDto getPublishedWorkflow(Long id) {
-        Workflow workflow = workflowRepository.findWithStepsById(id)
+    public WorkflowVersionDto getPublishedWorkflow(Long id) {
+        Long versionId = versionService.findPublishedVersionId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + id));
-        if (workflow.getStatus() != WorkflowStatus.PUBLISHED) {
-            throw new ResourceNotFoundException("Workflow not found: " + id);
-        }
-        return toDto(workflow);
+        return versionService.getVersion(versionId);
     }
 
-    @CacheEvict(value = "workflows", allEntries = true)
     @Transactional
     public WorkflowDto createWorkflow(WorkflowDto dto, String username) {
         User user = userRepository.findByUsername(username)
@@ -88,10 +113,13 @@ public class WorkflowService {
         }
 
         Workflow saved = workflowRepository.save(workflow);
-        return toDto(saved);
+        return loadDefinition(saved.getId());
     }
 
-    @CacheEvict(value = "workflows", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "workflows", key = "#id"),
+            @CacheEvict(value = CaffeineCacheConfig.PUBLISHED_WORKFLOWS_CACHE, key = "#id")
+    })
     @Transactional
     public WorkflowDto updateWorkflow(Long id, WorkflowDto dto) {
         Workflow workflow = workflowRepository.findById(id)
@@ -117,28 +145,45 @@ public class WorkflowService {
         }
 
         Workflow saved = workflowRepository.save(workflow);
-        return toDto(saved);
+        if (dto.status() == WorkflowStatus.PUBLISHED) {
+            versionService.publish(saved);
+        }
+        return loadDefinition(saved.getId());
     }
 
-    @CacheEvict(value = "workflows", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "workflows", key = "#id"),
+            @CacheEvict(value = CaffeineCacheConfig.PUBLISHED_WORKFLOWS_CACHE, key = "#id")
+    })
     @Transactional
     public void deleteWorkflow(Long id) {
         if (!workflowRepository.existsById(id)) {
             throw new ResourceNotFoundException("Workflow not found: " + id);
         }
+        versionRepository.deleteByWorkflowId(id);
         workflowRepository.deleteById(id);
     }
 
-    @CacheEvict(value = "workflows", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "workflows", key = "#id"),
+            @CacheEvict(value = CaffeineCacheConfig.PUBLISHED_WORKFLOWS_CACHE, key = "#id")
+    })
     @Transactional
     public WorkflowDto publishWorkflow(Long id) {
-        Workflow workflow = workflowRepository.findWithStepsById(id)
+        Workflow workflow = workflowRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + id));
         if (workflow.getSteps() == null || workflow.getSteps().isEmpty()) {
             throw new BadRequestException("Workflow must have at least one step before publishing");
         }
         workflow.setStatus(WorkflowStatus.PUBLISHED);
-        return toDto(workflowRepository.save(workflow));
+        versionService.publish(workflow);
+        workflowRepository.save(workflow);
+        return loadDefinition(id);
+    }
+
+    private WorkflowDto loadDefinition(Long id) {
+        return definitionLoader.load(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + id));
     }
 
     private WorkflowStep mapStepFromDto(WorkflowStepDto dto) {
@@ -185,46 +230,6 @@ public class WorkflowService {
         return step;
     }
 
-    private WorkflowDto toDto(Workflow workflow) {
-        List<WorkflowStepDto> stepDtos = workflow.getSteps() != null
-                ? workflow.getSteps().stream()
-                    .collect(Collectors.toMap(WorkflowStep::getId, s -> s, (a, b) -> a, java.util.LinkedHashMap::new))
-                    .values().stream()
-                    .map(this::stepToDto)
-                    .toList()
-                : new ArrayList<>();
-        // Aggregate all step-level rules for backward compatibility (workflow.businessRules)
-        List<BusinessRuleDto> ruleDtos = new ArrayList<>();
-        if (workflow.getSteps() != null) {
-            for (WorkflowStep s : workflow.getSteps()) {
-                if (s.getBusinessRules() != null) {
-                    for (BusinessRule r : s.getBusinessRules()) {
-                        ruleDtos.add(ruleToDto(r));
-                    }
-                }
-            }
-        }
-        // Legacy workflow-level rules (no step)
-        if (workflow.getBusinessRules() != null) {
-            for (BusinessRule r : workflow.getBusinessRules()) {
-                if (r.getStep() == null) {
-                    ruleDtos.add(ruleToDto(r));
-                }
-            }
-        }
-
-        return new WorkflowDto(
-                workflow.getId(),
-                workflow.getName(),
-                workflow.getDescription(),
-                workflow.getStatus(),
-                workflow.getCreatedBy() != null ? workflow.getCreatedBy().getUsername() : null,
-                stepDtos,
-                ruleDtos,
-                workflow.getCreatedAt() != null ? workflow.getCreatedAt().toString() : null
-        );
-    }
-
     private BusinessRule mapRuleFromDto(BusinessRuleDto dto) {
         return BusinessRule.builder()
                 .name(dto.name() != null ? dto.name() : "Rule")
@@ -235,54 +240,4 @@ public class WorkflowService {
                 .ruleOrder(dto.ruleOrder() != null ? dto.ruleOrder() : 0)
                 .build();
     }
-
-    private BusinessRuleDto ruleToDto(BusinessRule rule) {
-        return new BusinessRuleDto(
-                rule.getId(),
-                rule.getName(),
-                rule.getDescription(),
-                rule.getConditionExpression(),
-                rule.getActionType(),
-                rule.getTargetStepId(),
-                rule.getRuleOrder()
-        );
-    }
-
-    private WorkflowStepDto stepToDto(WorkflowStep step) {
-        List<FormFieldDto> fieldDtos = step.getFormFields() != null
-                ? step.getFormFields().stream().map(this::fieldToDto).toList()
-                : new ArrayList<>();
-        List<BusinessRuleDto> ruleDtos = step.getBusinessRules() != null
-                ? step.getBusinessRules().stream().map(this::ruleToDto).toList()
-                : new ArrayList<>();
-
-        return new WorkflowStepDto(
-                step.getId(),
-                step.getName(),
-                step.getDescription(),
-                step.getType(),
-                step.getStepOrder(),
-                step.getAssignedRole() != null ? step.getAssignedRole().getId() : null,
-                step.getAssignedRole() != null ? step.getAssignedRole().getName() : null,
-                step.getPositionX(),
-                step.getPositionY(),
-                step.getTransitionTargets(),
-                fieldDtos,
-                ruleDtos
-        );
-    }
-
-    private FormFieldDto fieldToDto(FormField field) {
-        return new FormFieldDto(
-                field.getId(),
-                field.getLabel(),
-                field.getFieldKey(),
-                field.getFieldType(),
-                field.isRequired(),
-                field.getPlaceholder(),
-                field.getOptions(),
-                field.getValidationRegex(),
-                field.getFieldOrder()
-        );
-    }
 }
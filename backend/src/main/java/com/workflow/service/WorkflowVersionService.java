@@ -0,0 +1,96 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.config.CaffeineCacheConfig;
+import com.workflow.dto.WorkflowDto;
+import com.workflow.dto.WorkflowVersionDto;
+import com.workflow.exception.ResourceNotFoundException;
+import com.workflow.model.Workflow;
+import com.workflow.model.WorkflowVersion;
+import com.workflow.repository.WorkflowVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Publishes immutable, numbered snapshots of workflow definitions and serves them by version id.
+ * Versions never change once written, so they are cached without eviction.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkflowVersionService {
+
+    private final WorkflowVersionRepository versionRepository;
+    private final WorkflowDefinitionLoader definitionLoader;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Snapshots the current definition of a workflow that has just been marked PUBLISHED and points the
+     * workflow at it. Republishing an unchanged definition reuses the latest version.
+     */
+    @Transactional
+    public WorkflowVersion publish(Workflow workflow) {
+        WorkflowDto definition = definitionLoader.load(workflow.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found: " + workflow.getId()));
+        String json = writeDefinition(definition);
+        String hash = sha256(json);
+
+        Optional<WorkflowVersion> latest = versionRepository.findTopByWorkflowIdOrderByVersionNumberDesc(workflow.getId());
+        WorkflowVersion version = latest
+                .filter(v -> v.getContentHash().equals(hash))
+                .orElseGet(() -> versionRepository.save(WorkflowVersion.builder()
+                        .workflow(workflow)
+                        .versionNumber(latest.map(v -> v.getVersionNumber() + 1).orElse(1))
+                        .contentHash(hash)
+                        .definition(json)
+                        .build()));
+        workflow.setPublishedVersion(version.getVersionNumber());
+        return version;
+    }
+
+    @Cacheable(value = CaffeineCacheConfig.WORKFLOW_VERSIONS_CACHE, key = "#versionId", sync = true)
+    @Transactional(readOnly = true)
+    public WorkflowVersionDto getVersion(Long versionId) {
+        WorkflowVersion version = versionRepository.findById(versionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow version not found: " + versionId));
+        return new WorkflowVersionDto(
+                version.getId(),
+                version.getWorkflow().getId(),
+                version.getVersionNumber(),
+                version.getContentHash(),
+                readDefinition(version.getDefinition())
+        );
+    }
+
+    /** Id of the version currently served for a published workflow, if any. */
+    @Transactional(readOnly = true)
+    public Optional<Long> findPublishedVersionId(Long workflowId) {
+        return versionRepository.findPublishedVersionId(workflowId);
+    }
+
+    private String writeDefinition(WorkflowDto definition) {
+        try {
+            return objectMapper.writeValueAsString(definition);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize workflow definition", e);
+        }
+    }
+
+    private WorkflowDto readDefinition(String json) {
+        try {
+            return objectMapper.readValue(json, WorkflowDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read workflow definition snapshot", e);
+        }
+    }
+
+    private static String sha256(String json) {
+        return HexFormat.of().formatHex(ContentHasher.sha256().digest(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.workflow.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+class BatchDispatcherTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Sign-in and nested batches stay out of a batch however their path is spelled. */
+    @Test
+    void encodedPathsDoNotGetAroundTheExcludedEndpoints() throws Exception {
+        String token = post("/api/auth/login", null, "{\"username\":\"admin\",\"password\":\"admin123\"}")
+                .get("accessToken").asText();
+
+        JsonNode responses = post("/api/batch", token, """
+                {"requests": [
+                  {"method": "POST", "path": "/api/auth/login", "body": {"username": "admin", "password": "admin123"}},
+                  {"method": "POST", "path": "/api/%61uth/login", "body": {"username": "admin", "password": "admin123"}},
+                  {"method": "POST", "path": "/api/%62atch", "body": {"requests": [{"method": "GET", "path": "/api/admin/roles"}]}},
+                  {"method": "GET", "path": "/api/admin/%72oles"}
+                ]}""").get("responses");
+
+        assertThat(responses).extracting(result -> result.get("status").asInt()).containsExactly(400, 400, 400, 200);
+    }
+
+    private JsonNode post(String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+}
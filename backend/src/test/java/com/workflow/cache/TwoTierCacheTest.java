@@ -0,0 +1,159 @@
+package com.workflow.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private static final String NAME = "workflows";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ConcurrentMapCache remote;
+    private Cache local;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        Ticker ticker = nanos::get;
+        local = new CoalescingCaffeineCache(NAME, Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .ticker(ticker)
+                .build(), true);
+        remote = new ConcurrentMapCache(NAME);
+        SimpleCacheManager localManager = new SimpleCacheManager();
+        localManager.setCaches(List.of(local));
+        localManager.afterPropertiesSet();
+        SimpleCacheManager remoteManager = new SimpleCacheManager();
+        remoteManager.setCaches(List.of(remote));
+        remoteManager.afterPropertiesSet();
+        TwoTierCacheManager manager = new TwoTierCacheManager(localManager, remoteManager,
+                CacheInvalidationPublisher.NONE, Set.of(NAME));
+        manager.setRefreshAhead(0.5);
+        cache = (TwoTierCache) manager.getCache(NAME);
+    }
+
+    /**
+     * The stampede after an eviction: many concurrent readers of the evicted key run one loader between them (one
+     * pooled connection), not one each.
+     */
+    @Test
+    void concurrentMissesAfterEvictionRunOneLoad() throws Exception {
+        cache.put(1L, "v1");
+        cache.evict(1L);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = java.util.stream.IntStream.range(0, 500)
+                    .mapToObj(i -> readers.submit(() -> {
+                        start.await();
+                        return cache.get(1L, () -> {
+                            loads.incrementAndGet();
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.sleep(100);
+                            running.decrementAndGet();
+                            return "v2";
+                        });
+                    }))
+                    .toList();
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("v2");
+            }
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(maxRunning).hasValue(1);
+        assertThat(remote.get(1L).get()).isEqualTo("v2");
+    }
+
+    @Test
+    void loadOvertakenByEvictionIsNotWrittenBack() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> reader = executor.submit(() -> cache.get(1L, () -> {
+                loading.countDown();
+                evicted.await();
+                return "before-update";
+            }));
+            loading.await();
+            cache.evict(1L);
+            evicted.countDown();
+            // The caller that started the load still gets its result
+            assertThat(reader.get()).isEqualTo("before-update");
+        }
+        assertThat(remote.get(1L)).isNull();
+        assertThat(local.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "after-update")).isEqualTo("after-update");
+        assertThat(remote.get(1L).get()).isEqualTo("after-update");
+    }
+
+    @Test
+    void loadOvertakenByPeerInvalidationIsNotWrittenBack() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> reader = executor.submit(() -> cache.get(1L, () -> {
+                loading.countDown();
+                invalidated.await();
+                return "before-update";
+            }));
+            loading.await();
+            // Another node updated the entry: it wrote L2 itself and told this node to drop L1
+            remote.put(1L, "peer-value");
+            cache.invalidateLocal(1L);
+            invalidated.countDown();
+            reader.get();
+        }
+        assertThat(remote.get(1L).get()).isEqualTo("peer-value");
+    }
+
+    @Test
+    void refreshOvertakenByEvictionIsNotWrittenBack() throws Exception {
+        cache.put(1L, "v1");
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> reader = executor.submit(() -> cache.get(1L, () -> {
+                refreshing.countDown();
+                evicted.await();
+                return "before-update";
+            }));
+            refreshing.await();
+            cache.evict(1L);
+            evicted.countDown();
+            reader.get();
+        }
+        assertThat(remote.get(1L)).isNull();
+        assertThat(local.get(1L)).isNull();
+    }
+
+    @Test
+    void refreshAheadReplacesBothTiers() {
+        cache.put(1L, "v1");
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        assertThat(cache.get(1L, () -> "v2")).isEqualTo("v2");
+        assertThat(remote.get(1L).get()).isEqualTo("v2");
+        assertThat(local.get(1L).get()).isEqualTo("v2");
+    }
+}
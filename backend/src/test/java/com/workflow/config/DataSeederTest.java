@@ -0,0 +1,40 @@
+package com.workflow.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+class DataSeederTest {
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Schemas from before current_step_id stopped being a relation lose the foreign key on the next start. */
+    @Test
+    void legacyCurrentStepForeignKeyIsDropped() {
+        jdbcTemplate.execute("ALTER TABLE workflow_instances ADD CONSTRAINT fk_legacy_current_step "
+                + "FOREIGN KEY (current_step_id) REFERENCES workflow_steps (id) NOCHECK");
+        assertThat(currentStepForeignKeys()).isEqualTo(1);
+
+        dataSeeder.dropCurrentStepForeignKey();
+
+        assertThat(currentStepForeignKeys()).isZero();
+    }
+
+    private int currentStepForeignKeys() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.referential_constraints
+                WHERE LOWER(constraint_name) = 'fk_legacy_current_step'
+                """, Integer.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.workflow.config;
+
+import com.workflow.cache.CacheInvalidationMessage;
+import com.workflow.cache.TwoTierCacheManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two nodes' {@link TwoTierCacheManager}s wired to a real Redis as {@link RedisConfig} wires them: an eviction on
+ * one drops the other's L1 copy, and the channel accepts nothing but the JSON message.
+ */
+class RedisCacheInvalidationTest {
+
+    private static final String CACHE = CaffeineCacheConfig.WORKFLOWS_CACHE;
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private final RedisConfig config = new RedisConfig();
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+    private RedisTemplate<String, CacheInvalidationMessage> template;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new RedisServer(port);
+        server.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template = config.cacheInvalidationTemplate(connectionFactory);
+        template.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(RedisMessageListenerContainer::stop);
+    }
+
+    @Test
+    void evictionOnOneNodeDropsTheOthersL1Copy() {
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager(CACHE);
+        CaffeineCacheManager localA = new CaffeineCacheManager(CACHE);
+        CaffeineCacheManager localB = new CaffeineCacheManager(CACHE);
+        TwoTierCacheManager nodeA = node(localA, redis);
+        TwoTierCacheManager nodeB = node(localB, redis);
+
+        nodeB.getCache(CACHE).put(42L, "v1");
+        nodeB.getCache(CACHE).put("alice", "v1");
+        nodeB.getCache(CACHE).put(7L, "v1");
+
+        nodeA.getCache(CACHE).evict(42L);
+        nodeA.getCache(CACHE).evict("alice");
+
+        Cache peer = localB.getCache(CACHE);
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(peer.get(42L)).isNull());
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(peer.get("alice")).isNull());
+        assertThat(peer.get(7L)).isNotNull();
+
+        nodeA.getCache(CACHE).clear();
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(peer.get(7L)).isNull());
+    }
+
+    @Test
+    void foreignPayloadsAreIgnored() {
+        CaffeineCacheManager local = new CaffeineCacheManager(CACHE);
+        Cache cache = node(local, new ConcurrentMapCacheManager(CACHE)).getCache(CACHE);
+        cache.put(42L, "v1");
+        cache.put(1L, "v1");
+
+        // A Java-serialized object, a typed JSON payload and a message the node does act on, in publish order
+        RedisTemplate<String, Object> raw = new RedisTemplate<>();
+        raw.setConnectionFactory(connectionFactory);
+        raw.setKeySerializer(RedisSerializer.string());
+        raw.setValueSerializer(RedisSerializer.byteArray());
+        raw.afterPropertiesSet();
+        raw.convertAndSend(RedisConfig.CACHE_INVALIDATION_CHANNEL,
+                RedisSerializer.java().serialize(new HashMap<>(Map.of("origin", "peer", "cacheName", CACHE))));
+        raw.convertAndSend(RedisConfig.CACHE_INVALIDATION_CHANNEL,
+                ("[\"java.util.HashMap\",{\"origin\":\"peer\",\"cacheName\":\"" + CACHE + "\"}]")
+                        .getBytes(StandardCharsets.UTF_8));
+        template.convertAndSend(RedisConfig.CACHE_INVALIDATION_CHANNEL,
+                CacheInvalidationMessage.of("peer", CACHE, 1L));
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(local.getCache(CACHE).get(1L)).isNull());
+        assertThat(local.getCache(CACHE).get(42L)).isNotNull();
+    }
+
+    private TwoTierCacheManager node(CaffeineCacheManager local, ConcurrentMapCacheManager redis) {
+        TwoTierCacheManager manager = new TwoTierCacheManager(local, redis,
+                message -> template.convertAndSend(RedisConfig.CACHE_INVALIDATION_CHANNEL, message), Set.of(CACHE));
+        RedisMessageListenerContainer container =
+                config.cacheInvalidationListenerContainer(connectionFactory, manager, template);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+        return manager;
+    }
+}
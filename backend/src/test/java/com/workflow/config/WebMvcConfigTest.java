@@ -0,0 +1,47 @@
+package com.workflow.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+class WebMvcConfigTest {
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    /** One converter per binary format, after JSON, and configured like JSON ({@code spring.jackson.*}). */
+    @Test
+    void binaryConvertersFollowJsonWithBootsSettings() {
+        List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+        List<HttpMessageConverter<?>> binary = converters.stream()
+                .filter(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                        || converter instanceof MappingJackson2CborHttpMessageConverter)
+                .toList();
+        assertThat(binary).extracting(Object::getClass).containsExactlyInAnyOrder(
+                MappingJackson2SmileHttpMessageConverter.class, MappingJackson2CborHttpMessageConverter.class);
+
+        int firstJson = IntStream.range(0, converters.size())
+                .filter(i -> converters.get(i) instanceof MappingJackson2HttpMessageConverter)
+                .findFirst()
+                .orElseThrow();
+        assertThat(binary).allSatisfy(converter -> assertThat(converters.indexOf(converter)).isGreaterThan(firstJson));
+        assertThat(binary).allSatisfy(converter -> assertThat(((AbstractJackson2HttpMessageConverter) converter)
+                .getObjectMapper().isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).isFalse());
+    }
+}
@@ -0,0 +1,53 @@
+package com.workflow.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-IP buckets behind the frontend's proxy: requests from a trusted proxy (here, loopback) are keyed by the
+ * client address it forwards, not by the proxy's.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+class RateLimitClientAddressTest {
+
+    /** Capacity of the {@code login} rule in application.yml. */
+    private static final int LOGIN_CAPACITY = 10;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void clientsBehindTheProxyHaveTheirOwnBuckets() throws Exception {
+        for (int i = 0; i < LOGIN_CAPACITY; i++) {
+            assertThat(login("203.0.113.1")).isNotEqualTo(429);
+        }
+        assertThat(login("203.0.113.1")).isEqualTo(429);
+
+        assertThat(login("203.0.113.2")).isNotEqualTo(429);
+        // The address nginx appends is the one trusted; what the client sent before it is not
+        assertThat(login("203.0.113.1, 203.0.113.3")).isNotEqualTo(429);
+    }
+
+    private int login(String forwardedFor) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"nobody\",\"password\":\"wrong\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,56 @@
+package com.workflow.repository;
+
+import com.workflow.model.WorkflowInstance;
+import com.workflow.model.WorkflowStep;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+@Transactional
+class WorkflowInstanceRepositoryTest {
+
+    @Autowired
+    private WorkflowInstanceRepository instanceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void backfillCopiesTheCurrentStepsName() {
+        WorkflowStep step = entityManager.createQuery("SELECT s FROM WorkflowStep s ORDER BY s.id", WorkflowStep.class)
+                .setMaxResults(1)
+                .getSingleResult();
+        WorkflowInstance unnamed = instanceRepository.save(WorkflowInstance.builder()
+                .workflow(step.getWorkflow())
+                .currentStepId(step.getId())
+                .build());
+        WorkflowInstance removedStep = instanceRepository.save(WorkflowInstance.builder()
+                .workflow(step.getWorkflow())
+                .currentStepId(-1L)
+                .build());
+        WorkflowInstance named = instanceRepository.save(WorkflowInstance.builder()
+                .workflow(step.getWorkflow())
+                .currentStepId(step.getId())
+                .currentStepName("Renamed since")
+                .build());
+        entityManager.flush();
+
+        assertThat(instanceRepository.backfillCurrentStepNames()).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(instanceRepository.findById(unnamed.getId())).get()
+                .extracting(WorkflowInstance::getCurrentStepName).isEqualTo(step.getName());
+        assertThat(instanceRepository.findById(removedStep.getId())).get()
+                .extracting(WorkflowInstance::getCurrentStepName).isNull();
+        assertThat(instanceRepository.findById(named.getId())).get()
+                .extracting(WorkflowInstance::getCurrentStepName).isEqualTo("Renamed since");
+    }
+}
@@ -0,0 +1,37 @@
+package com.workflow.security;
+
+import com.workflow.config.AppSecurityProperties;
+import com.workflow.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder =
+            new BoundedPasswordEncoder(new AppSecurityProperties.PasswordHashing(4, 12, 1, 1));
+
+    @AfterEach
+    void tearDown() throws Exception {
+        encoder.destroy();
+    }
+
+    /** A work factor above the ceiling would make every login too slow to serve; it is refused, not applied. */
+    @Test
+    void strengthIsCappedAtTheConfiguredMaximum() {
+        encoder.setStrength(12);
+
+        assertThatThrownBy(() -> encoder.setStrength(13))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("12");
+        assertThat(encoder.getStrength()).isEqualTo(12);
+    }
+
+    @Test
+    void initialStrengthAboveTheMaximumIsAConfigurationError() {
+        assertThatThrownBy(() -> new AppSecurityProperties.PasswordHashing(15, 14, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
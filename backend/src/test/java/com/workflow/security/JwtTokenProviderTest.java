@@ -0,0 +1,47 @@
+package com.workflow.security;
+
+import com.workflow.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final long ACCESS_MS = 3_600_000;
+    private static final long REFRESH_MS = 7 * 86_400_000L;
+
+    private final byte[] secret = new byte[64];
+    private final JwtTokenProvider provider;
+
+    JwtTokenProviderTest() {
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) (31 * i + 7);
+        }
+        provider = new JwtTokenProvider(new JwtProperties(Base64.getEncoder().encodeToString(secret),
+                ACCESS_MS, REFRESH_MS, 0, null));
+    }
+
+    /** Untyped tokens predate the type claim; only their lifetime tells a legacy access token from a refresh token. */
+    @Test
+    void untypedTokensPassAsAccessTokensOnlyWithinTheAccessLifetime() {
+        assertThat(provider.hasAccessTokenLifetime(untyped(ACCESS_MS))).isTrue();
+        assertThat(provider.hasAccessTokenLifetime(untyped(REFRESH_MS))).isFalse();
+    }
+
+    private Claims untyped(long lifetimeMs) {
+        Date now = new Date();
+        String token = Jwts.builder()
+                .subject("admin")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + lifetimeMs))
+                .signWith(Keys.hmacShaKeyFor(secret))
+                .compact();
+        return provider.parseVerifiedClaims(token).orElseThrow();
+    }
+}
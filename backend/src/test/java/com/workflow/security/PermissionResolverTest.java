@@ -0,0 +1,79 @@
+package com.workflow.security;
+
+import com.workflow.cache.CacheInvalidationMessage;
+import com.workflow.cache.CacheInvalidationPublisher;
+import com.workflow.cache.TwoTierCacheManager;
+import com.workflow.config.CaffeineCacheConfig;
+import com.workflow.dto.RoleDto;
+import com.workflow.dto.RoleListDto;
+import com.workflow.service.RoleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PermissionResolverTest {
+
+    private final PermissionRegistry registry = new PermissionRegistry();
+    private final RoleService roleService = mock(RoleService.class);
+    private TwoTierCacheManager cacheManager;
+    private PermissionResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TwoTierCacheManager(manager(), manager(), CacheInvalidationPublisher.NONE,
+                Set.of(CaffeineCacheConfig.ROLES_CACHE));
+        resolver = new PermissionResolver(registry, roleService, cacheManager);
+    }
+
+    /** Requests reuse the snapshot; the role list is read again only after the roles cache is cleared. */
+    @Test
+    void roleListIsReadOnlyWhenTheRolesCacheIsCleared() {
+        when(roleService.getAllRoles()).thenReturn(roles("h1", "tasks:read"), roles("h2", "tasks:write"));
+
+        for (int i = 0; i < 100; i++) {
+            resolver.forRoles(List.of("USER"));
+        }
+        verify(roleService, times(1)).getAllRoles();
+        assertThat(resolver.forRoles(List.of("USER")).has(registry.permissionBit("tasks:read"))).isTrue();
+
+        cacheManager.getCache(CaffeineCacheConfig.ROLES_CACHE).clear();
+        PermissionSet changed = resolver.forRoles(List.of("USER"));
+        verify(roleService, times(2)).getAllRoles();
+        assertThat(changed.has(registry.permissionBit("tasks:write"))).isTrue();
+        assertThat(changed.has(registry.permissionBit("tasks:read"))).isFalse();
+    }
+
+    @Test
+    void peerClearOfTheRolesCacheIsPickedUp() {
+        when(roleService.getAllRoles()).thenReturn(roles("h1", "tasks:read"), roles("h2", "tasks:write"));
+        resolver.forRoles(List.of("USER"));
+
+        cacheManager.onInvalidation(CacheInvalidationMessage.of("peer", CaffeineCacheConfig.ROLES_CACHE, null));
+
+        assertThat(resolver.forRoles(List.of("USER")).has(registry.permissionBit("tasks:write"))).isTrue();
+        verify(roleService, times(2)).getAllRoles();
+    }
+
+    private static RoleListDto roles(String contentHash, String permission) {
+        return new RoleListDto(contentHash,
+                List.of(new RoleDto(1L, "USER", null, new TreeSet<>(Set.of(permission)))));
+    }
+
+    private static SimpleCacheManager manager() {
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(new ConcurrentMapCache(CaffeineCacheConfig.ROLES_CACHE)));
+        manager.afterPropertiesSet();
+        return manager;
+    }
+}
@@ -0,0 +1,76 @@
+package com.workflow.security;
+
+import com.workflow.repository.RoleRepository;
+import com.workflow.repository.UserRepository;
+import com.workflow.service.RoleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+class UserDetailsServiceImplTest {
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    /** Credentials are erased from each authentication, never from the cached copy later logins check against. */
+    @Test
+    void erasingCredentialsLeavesTheCachedUserIntact() {
+        userDetailsService.loadUserByUsername("admin");
+
+        for (int login = 0; login < 2; login++) {
+            Authentication authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin123"));
+
+            assertThat(authentication.getCredentials()).isNull();
+            assertThat(((UserDetails) authentication.getPrincipal()).getPassword()).isNull();
+        }
+        assertThat(userDetailsService.loadUserByUsername("admin").getPassword()).isNotNull();
+    }
+
+    /** The cached authorities follow role assignments once they commit, not after the cache TTL. */
+    @Test
+    void roleChangesEvictTheCachedUser() {
+        Long userId = userRepository.findByUsername("user").orElseThrow().getId();
+        Long adminRoleId = roleRepository.findByName("ADMIN").orElseThrow().getId();
+        assertThat(authorities("user")).doesNotContain("ROLE_ADMIN");
+
+        roleService.assignRoleToUser(userId, adminRoleId);
+        try {
+            assertThat(authorities("user")).contains("ROLE_ADMIN");
+        } finally {
+            roleService.removeRoleFromUser(userId, adminRoleId);
+        }
+        assertThat(authorities("user")).doesNotContain("ROLE_ADMIN");
+    }
+
+    private List<String> authorities(String username) {
+        return userDetailsService.loadUserByUsername(username).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+}
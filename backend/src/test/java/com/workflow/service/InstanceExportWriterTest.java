@@ -0,0 +1,78 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.dto.InstanceExportRow;
+import com.workflow.model.InstanceStatus;
+import com.workflow.repository.WorkflowInstanceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InstanceExportWriterTest {
+
+    private final WorkflowInstanceRepository repository = mock(WorkflowInstanceRepository.class);
+    private final InstanceExportWriter writer = new InstanceExportWriter(repository, new ObjectMapper());
+
+    @Test
+    void csvQuotesOnlyWhereNeeded() throws Exception {
+        assertThat(csvLine(row("Purchase, large", "Say \"hi\"", "alice"))).isEqualTo(
+                "1,2,\"Purchase, large\",3,\"Say \"\"hi\"\"\",alice,bob,IN_PROGRESS,2024-03-01T09:30,");
+    }
+
+    @Test
+    void csvDefusesFormulas() throws Exception {
+        assertThat(csvLine(row("=HYPERLINK(\"http://evil\",\"x\")", "+1", "@SUM(A1)"))).isEqualTo(
+                "1,2,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",3,\"'+1\",\"'@SUM(A1)\",bob,IN_PROGRESS,"
+                        + "2024-03-01T09:30,");
+        assertThat(csvLine(row("-2+3", "\tTab", "a=b"))).startsWith("1,2,\"'-2+3\",3,\"'\tTab\",a=b,");
+    }
+
+    /** Every submission is exported, in order; a separator inside a value does not split it. */
+    @Test
+    void formDataKeepsEverySubmission() throws Exception {
+        String formData = "{\"amount\":1200,\"note\":\"a|||b\"}|||{\"approved\":true}|||{\"comment\":\"ok\"}";
+        String submissions = "[{\"amount\":1200,\"note\":\"a|||b\"},{\"approved\":true},{\"comment\":\"ok\"}]";
+
+        String ndjson = export(InstanceExportWriter.Format.NDJSON, formData);
+        assertThat(new ObjectMapper().readTree(ndjson).get("formData").toString()).isEqualTo(submissions);
+
+        String csvLine = export(InstanceExportWriter.Format.CSV, formData).split("\r\n")[1];
+        assertThat(csvLine).endsWith(",\"" + submissions.replace("\"", "\"\"") + "\"");
+    }
+
+    @Test
+    void unparseableFormDataIsKeptAsText() throws Exception {
+        String ndjson = export(InstanceExportWriter.Format.NDJSON, "{\"amount\":1200}|||not json");
+
+        assertThat(new ObjectMapper().readTree(ndjson).get("formData").toString())
+                .isEqualTo("[{\"amount\":1200},\"not json\"]");
+    }
+
+    private static InstanceExportRow row(String workflowName, String stepName, String assignee) {
+        return new InstanceExportRow(1L, 2L, workflowName, 3L, stepName, assignee, "bob", InstanceStatus.IN_PROGRESS,
+                LocalDateTime.of(2024, 3, 1, 9, 30), null, null);
+    }
+
+    private String export(InstanceExportWriter.Format format, String formData) throws Exception {
+        InstanceExportRow row = new InstanceExportRow(1L, 2L, "Purchase", 3L, "Review", "alice", "bob",
+                InstanceStatus.IN_PROGRESS, LocalDateTime.of(2024, 3, 1, 9, 30), null, formData);
+        when(repository.streamForExportWithFormData(null, null)).thenReturn(Stream.of(row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(format, true, null, null, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String csvLine(InstanceExportRow row) throws Exception {
+        when(repository.streamForExport(null, null)).thenReturn(Stream.of(row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(InstanceExportWriter.Format.CSV, false, null, null, out);
+        return out.toString(StandardCharsets.UTF_8).split("\r\n")[1];
+    }
+}
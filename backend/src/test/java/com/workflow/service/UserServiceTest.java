@@ -0,0 +1,69 @@
+package com.workflow.service;
+
+import com.workflow.dto.UserDto;
+import com.workflow.jdbc.SqlStatistics;
+import com.workflow.model.Role;
+import com.workflow.model.User;
+import com.workflow.repository.RoleRepository;
+import com.workflow.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+@Transactional
+class UserServiceTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /** The eager roles, with their eager permissions joined in, are read in one batch, not once per user or role. */
+    @Test
+    void userPageLoadsRolesAndPermissionsInBatches() {
+        Role user = roleRepository.findByName("USER").orElseThrow();
+        for (int r = 0; r < 3; r++) {
+            Role reviewer = roleRepository.save(Role.builder().name("REVIEWER_" + r)
+                    .permissions(Set.of("READ", "REVIEW")).build());
+            for (int u = 0; u < PAGE_SIZE; u++) {
+                userRepository.save(User.builder().username("reviewer" + r + "_" + u)
+                        .email("reviewer" + r + "_" + u + "@example.com").password("x")
+                        .roles(Set.of(user, reviewer)).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<UserDto> page;
+        try (SqlStatistics.Recording sql = SqlStatistics.record()) {
+            page = userService.getAllUsers(PageRequest.of(1, PAGE_SIZE, Sort.by("id")));
+
+            // Users, their count, the page's roles with their permissions
+            assertThat(sql.statements()).as(sql.describe()).isEqualTo(3);
+        }
+        assertThat(page.getContent()).hasSize(PAGE_SIZE)
+                .allSatisfy(dto -> assertThat(dto.roles()).hasSize(2).contains("USER"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.workflow.service;
+
+import com.workflow.dto.WorkflowDto;
+import com.workflow.jdbc.SqlStatistics;
+import com.workflow.model.BusinessRule;
+import com.workflow.model.FieldType;
+import com.workflow.model.FormField;
+import com.workflow.model.StepType;
+import com.workflow.model.Workflow;
+import com.workflow.model.WorkflowStatus;
+import com.workflow.model.WorkflowStep;
+import com.workflow.repository.RoleRepository;
+import com.workflow.repository.UserRepository;
+import com.workflow.repository.WorkflowRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+@Transactional
+class WorkflowDefinitionLoaderTest {
+
+    private static final int STEPS = 100;
+    private static final int FIELDS_PER_STEP = 20;
+    /** Of the seeded USER role, which every step is assigned to. */
+    private static final int USER_PERMISSIONS = 2;
+
+    @Autowired
+    private WorkflowDefinitionLoader loader;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /** One flat query per level, rows linear in the definition: not steps × fields, and no query per step. */
+    @Test
+    void largeDefinitionLoadsInOneQueryPerLevel() {
+        Long workflowId = saveWorkflow();
+
+        WorkflowDto dto;
+        try (SqlStatistics.Recording sql = SqlStatistics.record()) {
+            dto = loader.load(workflowId).orElseThrow();
+
+            // Workflow with its creator's name, steps with their roles, the roles' (eager) permissions in one
+            // batch, fields, rules
+            assertThat(sql.statements()).as(sql.describe()).isEqualTo(5);
+            assertThat(sql.rows()).isEqualTo(1 + STEPS + USER_PERMISSIONS + STEPS * FIELDS_PER_STEP + STEPS);
+        }
+        assertThat(dto.steps()).hasSize(STEPS)
+                .allSatisfy(step -> {
+                    assertThat(step.formFields()).hasSize(FIELDS_PER_STEP);
+                    assertThat(step.businessRules()).hasSize(1);
+                });
+        assertThat(dto.businessRules()).hasSize(STEPS);
+    }
+
+    private Long saveWorkflow() {
+        Workflow workflow = Workflow.builder()
+                .name("Large definition")
+                .status(WorkflowStatus.DRAFT)
+                .createdBy(userRepository.findByUsername("admin").orElseThrow())
+                .build();
+        for (int s = 0; s < STEPS; s++) {
+            WorkflowStep step = WorkflowStep.builder()
+                    .name("Step " + s)
+                    .type(s == 0 ? StepType.START : s == STEPS - 1 ? StepType.END : StepType.TASK)
+                    .stepOrder(s)
+                    .assignedRole(roleRepository.findByName("USER").orElseThrow())
+                    .build();
+            for (int f = 0; f < FIELDS_PER_STEP; f++) {
+                step.addFormField(FormField.builder().label("Field " + f).fieldKey("field_" + f)
+                        .fieldType(FieldType.TEXT).fieldOrder(f).build());
+            }
+            step.addBusinessRule(BusinessRule.builder().name("Rule " + s).conditionExpression("field_0 == 'x'")
+                    .actionType("REJECT").ruleOrder(0).build());
+            workflow.addStep(step);
+        }
+        Long id = workflowRepository.save(workflow).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+}
@@ -0,0 +1,92 @@
+package com.workflow.service;
+
+import com.workflow.dto.WorkflowDefinitionDto;
+import com.workflow.dto.WorkflowListDto;
+import com.workflow.jdbc.SqlStatistics;
+import com.workflow.model.StepType;
+import com.workflow.model.Workflow;
+import com.workflow.model.WorkflowStatus;
+import com.workflow.model.WorkflowStep;
+import com.workflow.repository.UserRepository;
+import com.workflow.repository.WorkflowRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.cache.warmup.enabled=false")
+@ActiveProfiles("dev")
+@Transactional
+class WorkflowServiceTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int STEPS = 5;
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /** Step counts come from the list query itself: no statement per workflow, whatever the page holds. */
+    @Test
+    void workflowListCountsStepsInTheListQuery() {
+        for (int w = 0; w < PAGE_SIZE + 1; w++) {
+            Workflow workflow = Workflow.builder()
+                    .name("Listed " + w)
+                    .status(WorkflowStatus.DRAFT)
+                    .createdBy(userRepository.findByUsername("admin").orElseThrow())
+                    .build();
+            for (int s = 0; s < STEPS; s++) {
+                workflow.addStep(WorkflowStep.builder().name("Step " + s).type(StepType.TASK).stepOrder(s).build());
+            }
+            workflowRepository.save(workflow);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<WorkflowListDto> page;
+        try (SqlStatistics.Recording sql = SqlStatistics.record()) {
+            page = workflowService.getAllWorkflows(PageRequest.of(0, PAGE_SIZE));
+
+            // The page and its count
+            assertThat(sql.statements()).as(sql.describe()).isEqualTo(2);
+        }
+        assertThat(page.getContent()).hasSize(PAGE_SIZE)
+                .filteredOn(dto -> dto.name().startsWith("Listed "))
+                .allSatisfy(dto -> assertThat(dto.stepCount()).isEqualTo(STEPS));
+    }
+
+    /** A view cut from the cached definition is tagged from the cached hash, not serialized and hashed again. */
+    @Test
+    void cachedViewIsTaggedFromTheFullHash() {
+        Workflow workflow = Workflow.builder()
+                .name("Tagged")
+                .status(WorkflowStatus.DRAFT)
+                .createdBy(userRepository.findByUsername("admin").orElseThrow())
+                .build();
+        workflow.addStep(WorkflowStep.builder().name("Only").type(StepType.TASK).stepOrder(0).build());
+        Long id = workflowRepository.save(workflow).getId();
+        entityManager.flush();
+        WorkflowFields stepsOnly = WorkflowFields.parse("steps");
+
+        WorkflowDefinitionDto full = workflowService.getWorkflow(id);
+        WorkflowDefinitionDto view = workflowService.getWorkflow(id, stepsOnly);
+
+        assertThat(view.contentHash()).isEqualTo(stepsOnly.tagOf(full.contentHash()));
+        assertThat(view.definition()).isEqualTo(stepsOnly.apply(full.definition()));
+    }
+}
@@ -2,6 +2,7 @@ import { BrowserRouter, Routes, Route, Navigate } from 'react-router-dom';
 import { Provider } from 'react-redux';
 import { store } from './store/store';
 import { AuthInit } from './components/AuthInit';
+import { TaskEvents } from './components/TaskEvents';
 import { ProtectedRoute, AdminRoute, PublicRoute } from './components/ProtectedRoute';
 import LoginPage from './pages/LoginPage';
 import RegisterPage from './pages/RegisterPage';
@@ -16,6 +17,7 @@ export default function App() {
   return (
     <Provider store={store}>
       <AuthInit />
+      <TaskEvents />
       <BrowserRouter>
         <Routes>
           <Route element={<PublicRoute />}>
@@ -0,0 +1,17 @@
+import { useEffect } from 'react';
+import { useSelector, useStore } from 'react-redux';
+import { followTaskEvents } from '../store/api/taskEvents';
+import type { AppDispatch, RootState } from '../store/store';
+
+/** Keeps the task caches up to date from the server's event stream while the user is signed in. */
+export function TaskEvents() {
+    const store = useStore<RootState>();
+    const isAuthenticated = useSelector((s: RootState) => s.auth.isAuthenticated);
+
+    useEffect(() => {
+        if (!isAuthenticated) return;
+        return followTaskEvents(store.dispatch as AppDispatch, store.getState);
+    }, [isAuthenticated, store]);
+
+    return null;
+}
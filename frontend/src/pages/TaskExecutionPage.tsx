@@ -1,14 +1,15 @@
 import { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { useGetTaskQuery, useSubmitStepMutation, useGetPublishedWorkflowQuery } from '../store/api/taskApi';
+import { useGetTaskDetailQuery, useSubmitStepMutation } from '../store/api/taskApi';
 import { motion } from 'framer-motion';
 import DynamicStepForm from '../components/DynamicStepForm';
 
 export default function TaskExecutionPage() {
     const { id } = useParams();
     const navigate = useNavigate();
-    const { data: task, isLoading } = useGetTaskQuery(Number(id));
-    const { data: workflow } = useGetPublishedWorkflowQuery(task?.workflowId ?? 0, { skip: !task?.workflowId });
+    const { data: detail, isLoading } = useGetTaskDetailQuery(Number(id));
+    const task = detail?.task;
+    const workflow = detail?.definition;
     const [submitStep, { isLoading: submitting }] = useSubmitStepMutation();
     const [formData, setFormData] = useState<Record<string, string>>({});
     const [submitError, setSubmitError] = useState<string | null>(null);
@@ -81,7 +82,7 @@ export default function TaskExecutionPage() {
                 </div>
             ); })()}
 
-            {task.status === 'IN_PROGRESS' && currentStep ? (
+            {detail?.permissions.canSubmit && currentStep ? (
                 <motion.div className="card card-step-form" initial={{ opacity: 0, y: 20 }} animate={{ opacity: 1, y: 0 }}>
                     <div className="card-header">
                         <div>
@@ -14,6 +14,8 @@ const baseQuery = fetchBaseQuery({
     },
 });
 
+let refreshInFlight: Promise<Awaited<ReturnType<typeof baseQuery>>> | null = null;
+
 export const baseQueryWithReauth: BaseQueryFn<
     string | FetchArgs,
     unknown,
@@ -29,11 +31,18 @@ export const baseQueryWithReauth: BaseQueryFn<
             return result;
         }
 
-        const refreshResult = await baseQuery(
-            { url: '/auth/refresh', method: 'POST', body: {} },
-            api,
-            extraOptions
-        );
+        // Refresh tokens are single-use: requests failing together share one refresh instead of each
+        // presenting the same token (which the server would treat as reuse and revoke the session)
+        if (!refreshInFlight) {
+            refreshInFlight = Promise.resolve(baseQuery(
+                { url: '/auth/refresh', method: 'POST', body: {} },
+                api,
+                extraOptions
+            )).finally(() => {
+                refreshInFlight = null;
+            });
+        }
+        const refreshResult = await refreshInFlight;
 
         if (refreshResult.data) {
             const data = refreshResult.data as AuthResponse;
@@ -1,5 +1,7 @@
 import { createApi } from '@reduxjs/toolkit/query/react';
-import type { WorkflowInstance, Workflow, Page } from '../../types';
+import type { ThunkDispatch, UnknownAction } from '@reduxjs/toolkit';
+import type { WorkflowInstance, Workflow, Page, TaskDetail } from '../../types';
+import type { RootState } from '../store';
 import { baseQueryWithReauth } from './baseQueryWithReauth';
 
 export const taskApi = createApi({
@@ -15,32 +17,88 @@ export const taskApi = createApi({
         }),
         getMyTasks: builder.query<Page<WorkflowInstance>, { page?: number; size?: number }>({
             query: ({ page = 0, size = 20 }) => `/tasks?page=${page}&size=${size}`,
-            providesTags: ['Task'],
+            providesTags: [{ type: 'Task', id: 'LIST' }],
         }),
         getTask: builder.query<WorkflowInstance, number>({
             query: (id) => `/tasks/${id}`,
             providesTags: (_r, _e, id) => [{ type: 'Task', id }],
         }),
+        getTaskDefinition: builder.query<Workflow, number>({
+            query: (id) => `/tasks/${id}/definition`,
+        }),
+        // Task, definition and permissions in one round trip for the task screen
+        getTaskDetail: builder.query<TaskDetail, number>({
+            query: (id) => `/tasks/${id}/detail`,
+            providesTags: (_r, _e, id) => [{ type: 'Task', id }],
+        }),
+        // Mutations patch the cached lists with the returned task instead of refetching them;
+        // other tabs receive the same change from the task event stream (see taskEvents.ts)
         startWorkflow: builder.mutation<WorkflowInstance, number>({
             query: (workflowId) => ({ url: `/tasks/start/${workflowId}`, method: 'POST' }),
-            invalidatesTags: ['Task'],
+            onQueryStarted: (_arg, { dispatch, getState, queryFulfilled }) =>
+                queryFulfilled.then(({ data }) => applyTaskChange(dispatch, getState, data, true)).catch(() => {}),
         }),
         submitStep: builder.mutation<WorkflowInstance, { id: number; formData: Record<string, unknown> }>({
             query: ({ id, formData }) => ({ url: `/tasks/${id}/submit`, method: 'POST', body: formData }),
-            invalidatesTags: (_r, _e, { id }) => [{ type: 'Task', id }, 'Task'],
+            onQueryStarted: (_arg, { dispatch, getState, queryFulfilled }) =>
+                queryFulfilled.then(({ data }) => applyTaskChange(dispatch, getState, data, false)).catch(() => {}),
         }),
         cancelTask: builder.mutation<WorkflowInstance, number>({
             query: (id) => ({ url: `/tasks/${id}/cancel`, method: 'POST' }),
-            invalidatesTags: ['Task'],
+            onQueryStarted: (_arg, { dispatch, getState, queryFulfilled }) =>
+                queryFulfilled.then(({ data }) => applyTaskChange(dispatch, getState, data, false)).catch(() => {}),
         }),
     }),
 });
 
+type TaskDispatch = ThunkDispatch<unknown, unknown, UnknownAction>;
+
+/** Ids of created tasks already counted, so the mutation result and the stream event add a task once. */
+const countedTasks = new Set<number>();
+
+/**
+ * Writes a task change into every cached page of the task list and into its detail entry. A new task assigned
+ * to the current user is appended to pages with room left (the list is in creation order); full pages only have
+ * their totals bumped.
+ */
+export function applyTaskChange(dispatch: TaskDispatch, getState: () => unknown, task: WorkflowInstance, created: boolean) {
+    const state = getState() as RootState;
+    const addToList = created && task.assigneeUsername === state.auth.username && !countedTasks.has(task.id);
+    if (addToList) {
+        countedTasks.add(task.id);
+    }
+    for (const args of taskApi.util.selectCachedArgsForQuery(state, 'getMyTasks')) {
+        dispatch(taskApi.util.updateQueryData('getMyTasks', args, (page) => {
+            const index = page.content.findIndex((t) => t.id === task.id);
+            if (index >= 0) {
+                page.content[index] = task;
+            } else if (addToList) {
+                page.totalElements += 1;
+                page.totalPages = Math.ceil(page.totalElements / page.size);
+                if (page.content.length < page.size) {
+                    page.content.push(task);
+                }
+            }
+        }));
+    }
+    dispatch(taskApi.util.updateQueryData('getTask', task.id, () => task));
+    dispatch(taskApi.util.updateQueryData('getTaskDetail', task.id, (detail) => {
+        const inProgress = task.status === 'IN_PROGRESS';
+        detail.task = task;
+        detail.permissions = {
+            canSubmit: detail.permissions.canSubmit && inProgress,
+            canCancel: detail.permissions.canCancel && inProgress,
+        };
+    }));
+}
+
 export const {
     useGetPublishedWorkflowsQuery,
     useGetPublishedWorkflowQuery,
     useGetMyTasksQuery,
     useGetTaskQuery,
+    useGetTaskDefinitionQuery,
+    useGetTaskDetailQuery,
     useStartWorkflowMutation,
     useSubmitStepMutation,
     useCancelTaskMutation,
@@ -0,0 +1,63 @@
+import type { AppDispatch, RootState } from '../store';
+import type { WorkflowInstance } from '../../types';
+import { applyTaskChange } from './taskApi';
+
+const RETRY_MS = 3000;
+
+/**
+ * Follows GET /api/tasks/events and applies each task change to the RTK Query cache, so open tabs stay current
+ * without refetching the task list. Uses fetch rather than EventSource, which cannot send the bearer token.
+ * Reconnects (with the latest access token) whenever the stream ends; returns a function that stops it.
+ */
+export function followTaskEvents(dispatch: AppDispatch, getState: () => RootState): () => void {
+    const controller = new AbortController();
+
+    const connect = async () => {
+        while (!controller.signal.aborted) {
+            try {
+                const token = getState().auth.accessToken;
+                const response = await fetch('/api/tasks/events', {
+                    headers: { Accept: 'text/event-stream', ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+                    credentials: 'include',
+                    signal: controller.signal,
+                });
+                if (response.ok && response.body) {
+                    await readEvents(response.body, (name, data) => {
+                        const task = JSON.parse(data) as WorkflowInstance;
+                        applyTaskChange(dispatch, getState, task, name === 'task-created');
+                    });
+                }
+            } catch {
+                // Network error or abort; retried below unless stopped
+            }
+            if (!controller.signal.aborted) {
+                await new Promise((resolve) => setTimeout(resolve, RETRY_MS));
+            }
+        }
+    };
+    void connect();
+    return () => controller.abort();
+}
+
+/** Minimal text/event-stream parser: dispatches named events, ignores comments (keep-alives). */
+async function readEvents(body: ReadableStream<Uint8Array>, onEvent: (name: string, data: string) => void) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += value;
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            let name = 'message';
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+                if (line.startsWith('event:')) name = line.slice(6).trim();
+                else if (line.startsWith('data:')) data.push(line.slice(5));
+            }
+            if (data.length) onEvent(name, data.join('\n'));
+        }
+    }
+}
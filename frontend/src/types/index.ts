@@ -103,6 +103,17 @@ export interface WorkflowInstance {
     completedAt?: string;
 }
 
+export interface TaskPermissions {
+    canSubmit: boolean;
+    canCancel: boolean;
+}
+
+export interface TaskDetail {
+    task: WorkflowInstance;
+    definition: Workflow;
+    permissions: TaskPermissions;
+}
+
 export interface Page<T> {
     content: T[];
     totalElements: number;